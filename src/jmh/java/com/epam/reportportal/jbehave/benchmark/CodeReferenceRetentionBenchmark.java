@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.benchmark;
+
+import com.epam.reportportal.jbehave.JBehaveUtils;
+import com.epam.reportportal.jbehave.util.CodeReference;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares heap retained by code references of Example steps, kept as materialized strings or as segments sharing the Example
+ * prefix, depending on a number of Example table columns. The retained size is reported as 'retainedBytesPerStep' counter, it's
+ * measured in a single iteration, since event counters are summed up over iterations.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CodeReferenceRetentionBenchmark {
+
+	private static final int ROWS = 10000;
+	private static final int STEPS = 10;
+	private static final String STORY = "stories/benchmark/WideExamples.story";
+	private static final String SCENARIO = "Wide examples scenario";
+
+	public enum Representation {
+		STRING,
+		SEGMENTS
+	}
+
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Retention {
+		public long retainedBytesPerStep;
+	}
+
+	@Param({ "4", "32" })
+	public int columns;
+
+	@Param
+	public Representation representation;
+
+	private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+	private List<String> exampleKeys;
+	private List<String> steps;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		exampleKeys = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			Map<String, String> example = new LinkedHashMap<>();
+			for (int j = 0; j < columns; j++) {
+				example.put("column" + j, "value " + i + "-" + j);
+			}
+			exampleKeys.add(JBehaveUtils.formatExampleKey(example));
+		}
+		steps = new ArrayList<>(STEPS);
+		for (int i = 0; i < STEPS; i++) {
+			steps.add("When I perform step number " + i + " with <column0>");
+		}
+	}
+
+	private long usedHeap() {
+		long used = Long.MAX_VALUE;
+		long current;
+		// Collect until the heap stops shrinking, a single System.gc() call doesn't guarantee a full collection
+		while ((current = collect()) < used) {
+			used = current;
+		}
+		return used;
+	}
+
+	private long collect() {
+		System.gc();
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+
+	@Benchmark
+	public Object retain(Retention retention) {
+		long before = usedHeap();
+		CodeReference scenario = CodeReference.of(STORY).child("SCENARIO", SCENARIO);
+		List<Object> codeRefs = new ArrayList<>(ROWS * STEPS);
+		for (String exampleKey : exampleKeys) {
+			CodeReference example = scenario.child("EXAMPLE", exampleKey);
+			for (String step : steps) {
+				CodeReference codeRef = example.child("STEP", step);
+				codeRefs.add(representation == Representation.STRING ? codeRef.toString() : codeRef);
+			}
+		}
+		retention.retainedBytesPerStep = (usedHeap() - before) / (ROWS * STEPS);
+		return codeRefs;
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.benchmark;
+
+import com.epam.reportportal.jbehave.ReportPortalScenarioFormat;
+import com.epam.reportportal.service.ReportPortal;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a cold start of a JVM which uses {@link ReportPortalScenarioFormat#INSTANCE}: loading of the format class and obtaining
+ * the instance. 'EAGER' mode also builds Report Portal client, as the format did on class loading, 'LAZY' mode leaves it until the
+ * first use. Each fork measures a single call in a fresh JVM, so class loading and initialization costs are included. Logging is
+ * initialized before the measurement, since it's shared with the rest of a test run.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Benchmark)
+public class FormatStartupBenchmark {
+
+	public enum Initialization {
+		EAGER,
+		LAZY
+	}
+
+	@Param
+	public Initialization initialization;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		LoggerFactory.getLogger(FormatStartupBenchmark.class).debug("Logging initialized");
+	}
+
+	@Benchmark
+	public Object instance() {
+		if (initialization == Initialization.EAGER) {
+			return new ReportPortalScenarioFormat(ReportPortal.builder().build());
+		}
+		return ReportPortalScenarioFormat.INSTANCE;
+	}
+}
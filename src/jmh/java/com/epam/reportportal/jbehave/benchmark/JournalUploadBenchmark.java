@@ -0,0 +1,181 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.benchmark;
+
+import com.epam.reportportal.jbehave.journal.JournalReportPortalClient;
+import com.epam.reportportal.jbehave.journal.JournalUploader;
+import com.epam.reportportal.listeners.ListenerParameters;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.utils.http.HttpRequestUtils;
+import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures upload of a recorded journal to a local stand-in Report Portal server, which answers every request with an empty JSON
+ * object after a fixed delay emulating a network round trip, depending on a number of uploading threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JournalUploadBenchmark {
+
+	private static final int STORIES = 16;
+	private static final int SCENARIOS = 5;
+	private static final int STEPS = 5;
+	private static final int LOGS_PER_BATCH = 20;
+	private static final long ROUND_TRIP_MILLIS = 1;
+	private static final byte[] RESPONSE = "{}".getBytes(StandardCharsets.UTF_8);
+
+	@Param({ "1", "4", "8" })
+	public int threads;
+
+	private Path journal;
+	private HttpServer server;
+	private ExecutorService serverExecutor;
+	private ListenerParameters parameters;
+	private ReportPortalClient client;
+
+	private static String startItem(ReportPortalClient journal, String parent, String name) {
+		StartTestItemRQ rq = new StartTestItemRQ();
+		rq.setName(name);
+		rq.setType("STEP");
+		rq.setStartTime(Instant.now());
+		return (parent == null ? journal.startTestItem(rq) : journal.startTestItem(parent, rq)).blockingGet().getId();
+	}
+
+	private static void finishItem(ReportPortalClient journal, String id) {
+		FinishTestItemRQ rq = new FinishTestItemRQ();
+		rq.setEndTime(Instant.now());
+		rq.setStatus("PASSED");
+		journal.finishTestItem(id, rq).blockingGet();
+	}
+
+	private static void writeJournal(Path file) throws IOException {
+		try (JournalReportPortalClient journal = new JournalReportPortalClient(file)) {
+			StartLaunchRQ launchRq = new StartLaunchRQ();
+			launchRq.setName("Benchmark launch");
+			launchRq.setStartTime(Instant.now());
+			String launchUuid = journal.startLaunch(launchRq).blockingGet().getId();
+			List<SaveLogRQ> logs = new ArrayList<>();
+			for (int i = 0; i < STORIES; i++) {
+				String story = startItem(journal, null, "Story " + i);
+				for (int j = 0; j < SCENARIOS; j++) {
+					String scenario = startItem(journal, story, "Scenario " + j);
+					for (int k = 0; k < STEPS; k++) {
+						String step = startItem(journal, scenario, "Step " + k);
+						SaveLogRQ log = new SaveLogRQ();
+						log.setLaunchUuid(launchUuid);
+						log.setItemUuid(step);
+						log.setLevel("INFO");
+						log.setMessage("A log message of step " + k);
+						log.setLogTime(Instant.now());
+						logs.add(log);
+						if (logs.size() >= LOGS_PER_BATCH) {
+							journal.log(HttpRequestUtils.buildLogMultiPartRequest(logs)).blockingGet();
+							logs = new ArrayList<>();
+						}
+						finishItem(journal, step);
+					}
+					finishItem(journal, scenario);
+				}
+				finishItem(journal, story);
+			}
+			if (!logs.isEmpty()) {
+				journal.log(HttpRequestUtils.buildLogMultiPartRequest(logs)).blockingGet();
+			}
+			FinishExecutionRQ finishRq = new FinishExecutionRQ();
+			finishRq.setEndTime(Instant.now());
+			journal.finishLaunch(launchUuid, finishRq).blockingGet();
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		journal = Files.createTempFile("rp-journal", ".rpj");
+		Files.delete(journal);
+		writeJournal(journal);
+
+		// Otherwise small responses are delayed by Nagle's algorithm more than by the emulated round trip
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", exchange -> {
+			try (InputStream in = exchange.getRequestBody()) {
+				byte[] buffer = new byte[8192];
+				//noinspection StatementWithEmptyBody
+				while (in.read(buffer) >= 0) {
+				}
+			}
+			try {
+				Thread.sleep(ROUND_TRIP_MILLIS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, RESPONSE.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(RESPONSE);
+			}
+		});
+		serverExecutor = Executors.newFixedThreadPool(16);
+		server.setExecutor(serverExecutor);
+		server.start();
+
+		parameters = new ListenerParameters();
+		parameters.setBaseUrl("http://localhost:" + server.getAddress().getPort());
+		parameters.setApiKey("benchmark");
+		parameters.setProjectName("benchmark");
+		parameters.setIoPoolSize(threads);
+		client = ReportPortal.builder().buildClient(ReportPortalClient.class, parameters);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		server.stop(0);
+		serverExecutor.shutdownNow();
+		Files.deleteIfExists(journal);
+	}
+
+	@Benchmark
+	public long upload() throws IOException, InterruptedException {
+		try (JournalUploader uploader = new JournalUploader(client, parameters, threads)) {
+			return uploader.upload(journal, null);
+		}
+	}
+}
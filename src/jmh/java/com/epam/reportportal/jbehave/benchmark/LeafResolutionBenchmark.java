@@ -0,0 +1,64 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.benchmark;
+
+import com.epam.reportportal.jbehave.ReportPortalScenarioStoryReporter;
+import com.epam.reportportal.jbehave.ReportPortalStoryReporter;
+import com.epam.reportportal.service.Launch;
+import com.epam.reportportal.service.tree.TestItemTree;
+import org.jbehave.core.model.Meta;
+import org.jbehave.core.model.Scenario;
+import org.jbehave.core.model.Step;
+import org.jbehave.core.model.Story;
+import org.jbehave.core.steps.StepCreator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a cost of a single step reporting depending on Given Stories nesting depth.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LeafResolutionBenchmark {
+
+	@Param({ "1", "4", "16", "64" })
+	public int depth;
+
+	private ReportPortalStoryReporter reporter;
+	private Step step;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		reporter = new ReportPortalScenarioStoryReporter(() -> Launch.NOOP_LAUNCH, new TestItemTree());
+		for (int i = 0; i < depth; i++) {
+			reporter.beforeStory(new Story("stories/Level" + i + ".story"), i > 0);
+		}
+		reporter.beforeScenario(new Scenario("Benchmark scenario", Meta.EMPTY));
+		step = new Step(StepCreator.StepExecutionType.EXECUTABLE, "Given a step on depth " + depth);
+	}
+
+	@Benchmark
+	public void step() {
+		reporter.beforeStep(step);
+		reporter.successful(step.getStepAsString());
+	}
+}
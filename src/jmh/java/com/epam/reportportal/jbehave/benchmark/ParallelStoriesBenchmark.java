@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.benchmark;
+
+import com.epam.reportportal.jbehave.ReportPortalScenarioStoryReporter;
+import com.epam.reportportal.jbehave.ReportPortalStoryReporter;
+import com.epam.reportportal.service.Launch;
+import com.epam.reportportal.service.tree.TestItemTree;
+import org.jbehave.core.model.Meta;
+import org.jbehave.core.model.Scenario;
+import org.jbehave.core.model.Step;
+import org.jbehave.core.model.Story;
+import org.jbehave.core.steps.StepCollector;
+import org.jbehave.core.steps.StepCreator;
+import org.jbehave.core.steps.Timing;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Measures reporting of a batch of Stories into a shared Test Item Tree depending on a number of threads, which report Stories in
+ * parallel, the same way as JBehave does with 'useThreads(N)'.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelStoriesBenchmark {
+
+	private static final int STORIES = 64;
+	private static final int SCENARIOS = 10;
+	private static final int STEPS = 10;
+
+	@Param({ "1", "2", "4", "8" })
+	public int threads;
+
+	private ExecutorService executor;
+	private List<Story> stories;
+	private Scenario scenario;
+	private List<Step> steps;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		executor = Executors.newFixedThreadPool(threads);
+		stories = new ArrayList<>(STORIES);
+		for (int i = 0; i < STORIES; i++) {
+			stories.add(new Story("stories/Parallel" + i + ".story"));
+		}
+		scenario = new Scenario("Benchmark scenario", Meta.EMPTY);
+		steps = new ArrayList<>(STEPS);
+		for (int i = 0; i < STEPS; i++) {
+			steps.add(new Step(StepCreator.StepExecutionType.EXECUTABLE, "Given a step number " + i));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	private void reportStory(TestItemTree tree, Story story) {
+		ReportPortalStoryReporter reporter = new ReportPortalScenarioStoryReporter(() -> Launch.NOOP_LAUNCH, tree);
+		reporter.beforeStory(story, false);
+		for (int i = 0; i < SCENARIOS; i++) {
+			reporter.beforeScenario(scenario);
+			for (Step step : steps) {
+				reporter.beforeStep(step);
+				reporter.successful(step.getStepAsString());
+			}
+			reporter.afterScenario(new Timing());
+		}
+		reporter.afterStory(false);
+	}
+
+	private void reportLifecycle(TestItemTree tree, StepCollector.Stage stage) {
+		ReportPortalStoryReporter reporter = new ReportPortalScenarioStoryReporter(() -> Launch.NOOP_LAUNCH, tree);
+		reporter.beforeStoriesSteps(stage);
+		Step step = new Step(StepCreator.StepExecutionType.EXECUTABLE, "lifecycle" + stage);
+		reporter.beforeStep(step);
+		reporter.successful(step.getStepAsString());
+	}
+
+	@Benchmark
+	public TestItemTree stories() throws ExecutionException, InterruptedException {
+		TestItemTree tree = new TestItemTree();
+		reportLifecycle(tree, StepCollector.Stage.BEFORE);
+		List<Future<?>> results = new ArrayList<>(STORIES);
+		for (Story story : stories) {
+			results.add(executor.submit(() -> reportStory(tree, story)));
+		}
+		for (Future<?> result : results) {
+			result.get();
+		}
+		reportLifecycle(tree, StepCollector.Stage.AFTER);
+		return tree;
+	}
+}
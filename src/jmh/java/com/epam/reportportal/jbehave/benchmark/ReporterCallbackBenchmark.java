@@ -0,0 +1,229 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.benchmark;
+
+import com.epam.reportportal.jbehave.JBehaveParameters;
+import com.epam.reportportal.jbehave.ReportPortalScenarioStoryReporter;
+import com.epam.reportportal.jbehave.ReportPortalStepStoryReporter;
+import com.epam.reportportal.jbehave.ReportPortalStoryReporter;
+import com.epam.reportportal.service.Launch;
+import com.epam.reportportal.service.tree.TestItemTree;
+import org.jbehave.core.model.*;
+import org.jbehave.core.steps.StepCollector;
+import org.jbehave.core.steps.StepCreator;
+import org.jbehave.core.steps.Timing;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures an average cost of a single JBehave event handled by a story reporter against {@link Launch#NOOP_LAUNCH}, so only the
+ * reporter overhead is included. Each invocation reports a whole Story into a fresh Test Item Tree, the result is divided by the
+ * number of reporter callbacks in it:
+ * <ul>
+ *     <li>plainScenarios - a Story with several Scenarios of plain steps;</li>
+ *     <li>examples - a Scenario with 1000 Example rows;</li>
+ *     <li>givenStories - deeply nested Given Stories, each with a Scenario;</li>
+ *     <li>lifecycle - BeforeStories / AfterStories, Before / After Story and Scenario lifecycle steps around Scenarios.</li>
+ * </ul>
+ * Run with '-prof gc' to get bytes allocated per callback ('gc.alloc.rate.norm').
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ReporterCallbackBenchmark {
+
+	private static final int SCENARIOS = 4;
+	private static final int STEPS = 5;
+	private static final int ROWS = 1000;
+	private static final int DEPTH = 8;
+	private static final int LIFECYCLE_STEPS = 3;
+	private static final Timing TIMING = new Timing();
+
+	// beforeStory, afterStory and beforeScenario, afterScenario with beforeStep, successful for each step
+	private static final int SCENARIO_CALLBACKS = 2 + STEPS * 2;
+	private static final int PLAIN_CALLBACKS = 2 + SCENARIOS * SCENARIO_CALLBACKS;
+	// beforeExamples, afterExamples and an example call for each row
+	private static final int EXAMPLES_CALLBACKS = 2 + 2 + ROWS * (1 + STEPS * 2) + 2;
+	private static final int GIVEN_STORIES_CALLBACKS = DEPTH * (2 + SCENARIO_CALLBACKS);
+	private static final int LIFECYCLE_CALLBACKS =
+			2 * (1 + LIFECYCLE_STEPS * 2) + 2 + 2 * LIFECYCLE_STEPS * 2 + SCENARIOS * (SCENARIO_CALLBACKS + 2 * LIFECYCLE_STEPS * 2);
+
+	public enum ReporterType {
+		STEP,
+		SCENARIO
+	}
+
+	@Param
+	public ReporterType reporterType;
+
+	private final JBehaveParameters parameters = new JBehaveParameters();
+
+	private List<Step> steps;
+	private List<Step> lifecycleSteps;
+	private Story plainStory;
+	private List<Scenario> plainScenarios;
+	private Story examplesStory;
+	private Scenario examplesScenario;
+	private List<Step> exampleSteps;
+	private List<Map<String, String>> exampleRows;
+	private List<Story> givenStories;
+	private List<Scenario> givenScenarios;
+
+	private static List<Step> createSteps(String prefix, int number) {
+		return IntStream.range(0, number)
+				.mapToObj(i -> new Step(StepCreator.StepExecutionType.EXECUTABLE, prefix + " " + i))
+				.collect(Collectors.toList());
+	}
+
+	private static List<String> asStrings(List<Step> steps) {
+		return steps.stream().map(Step::getStepAsString).collect(Collectors.toList());
+	}
+
+	private static List<Scenario> createScenarios(String prefix, int number, List<Step> steps) {
+		return IntStream.range(0, number).mapToObj(i -> new Scenario(prefix + " " + i, asStrings(steps))).collect(Collectors.toList());
+	}
+
+	@Setup(Level.Trial)
+	public void setup() {
+		steps = createSteps("Given a plain step", STEPS);
+		lifecycleSteps = createSteps("Given a lifecycle step", LIFECYCLE_STEPS);
+		plainScenarios = createScenarios("Plain scenario", SCENARIOS, steps);
+		plainStory = new Story("stories/benchmark/Plain.story", plainScenarios);
+
+		StringBuilder table = new StringBuilder("|param|result|\n");
+		IntStream.range(0, ROWS).forEach(i -> table.append('|').append(i).append('|').append(i * 2).append("|\n"));
+		ExamplesTable examples = new ExamplesTable(table.toString());
+		exampleRows = examples.getRows();
+		exampleSteps = IntStream.range(0, STEPS)
+				.mapToObj(i -> new Step(StepCreator.StepExecutionType.EXECUTABLE, "Given a step " + i + " with <param> and <result>"))
+				.collect(Collectors.toList());
+		examplesScenario = new Scenario("Examples scenario", Meta.EMPTY, GivenStories.EMPTY, examples, asStrings(exampleSteps));
+		examplesStory = new Story("stories/benchmark/Examples.story", Collections.singletonList(examplesScenario));
+
+		givenStories = new ArrayList<>(DEPTH);
+		givenScenarios = new ArrayList<>(DEPTH);
+		for (int i = 0; i < DEPTH; i++) {
+			Scenario scenario = new Scenario("Scenario on level " + i, asStrings(steps));
+			givenScenarios.add(scenario);
+			givenStories.add(new Story("stories/benchmark/Level" + i + ".story", Collections.singletonList(scenario)));
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	private ReportPortalStoryReporter createReporter(TestItemTree tree) {
+		return reporterType == ReporterType.STEP ?
+				new ReportPortalStepStoryReporter(() -> Launch.NOOP_LAUNCH, tree, parameters) :
+				new ReportPortalScenarioStoryReporter(() -> Launch.NOOP_LAUNCH, tree, parameters);
+	}
+
+	private static void reportSteps(ReportPortalStoryReporter reporter, List<Step> steps) {
+		for (Step step : steps) {
+			reporter.beforeStep(step);
+			reporter.successful(step.getStepAsString());
+		}
+	}
+
+	private static void reportScenario(ReportPortalStoryReporter reporter, Scenario scenario, List<Step> steps) {
+		reporter.beforeScenario(scenario);
+		reportSteps(reporter, steps);
+		reporter.afterScenario(TIMING);
+	}
+
+	private void reportGivenStory(ReportPortalStoryReporter reporter, int level) {
+		reporter.beforeStory(givenStories.get(level), level > 0);
+		if (level < DEPTH - 1) {
+			reportGivenStory(reporter, level + 1);
+		}
+		reportScenario(reporter, givenScenarios.get(level), steps);
+		reporter.afterStory(level > 0);
+	}
+
+	private void reportStoriesSteps(TestItemTree tree, StepCollector.Stage stage) {
+		// JBehave reports BeforeStories / AfterStories steps with a separate reporter
+		ReportPortalStoryReporter reporter = createReporter(tree);
+		reporter.beforeStoriesSteps(stage);
+		reportSteps(reporter, lifecycleSteps);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PLAIN_CALLBACKS)
+	public TestItemTree plainScenarios() {
+		TestItemTree tree = new TestItemTree();
+		ReportPortalStoryReporter reporter = createReporter(tree);
+		reporter.beforeStory(plainStory, false);
+		plainScenarios.forEach(s -> reportScenario(reporter, s, steps));
+		reporter.afterStory(false);
+		return tree;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(EXAMPLES_CALLBACKS)
+	public TestItemTree examples() {
+		TestItemTree tree = new TestItemTree();
+		ReportPortalStoryReporter reporter = createReporter(tree);
+		reporter.beforeStory(examplesStory, false);
+		reporter.beforeScenario(examplesScenario);
+		reporter.beforeExamples(examplesScenario.getSteps(), examplesScenario.getExamplesTable());
+		for (int i = 0; i < exampleRows.size(); i++) {
+			reporter.example(exampleRows.get(i), i);
+			reportSteps(reporter, exampleSteps);
+		}
+		reporter.afterExamples();
+		reporter.afterScenario(TIMING);
+		reporter.afterStory(false);
+		return tree;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GIVEN_STORIES_CALLBACKS)
+	public TestItemTree givenStories() {
+		TestItemTree tree = new TestItemTree();
+		reportGivenStory(createReporter(tree), 0);
+		return tree;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LIFECYCLE_CALLBACKS)
+	public TestItemTree lifecycle() {
+		TestItemTree tree = new TestItemTree();
+		reportStoriesSteps(tree, StepCollector.Stage.BEFORE);
+		ReportPortalStoryReporter reporter = createReporter(tree);
+		reporter.beforeStory(plainStory, false);
+		reportSteps(reporter, lifecycleSteps);
+		for (Scenario scenario : plainScenarios) {
+			reporter.beforeScenario(scenario);
+			reportSteps(reporter, lifecycleSteps);
+			reportSteps(reporter, steps);
+			reportSteps(reporter, lifecycleSteps);
+			reporter.afterScenario(TIMING);
+		}
+		reportSteps(reporter, lifecycleSteps);
+		reporter.afterStory(false);
+		reportStoriesSteps(tree, StepCollector.Stage.AFTER);
+		return tree;
+	}
+}
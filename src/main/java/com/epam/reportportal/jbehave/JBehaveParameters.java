@@ -0,0 +1,399 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import com.epam.reportportal.utils.properties.PropertiesLoader;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * JBehave agent specific parameters.
+ *
+ * @author Vadzim Hushchanskou
+ * @see JBehaveProperty
+ */
+public class JBehaveParameters {
+	private static final Logger LOGGER = LoggerFactory.getLogger(JBehaveParameters.class);
+
+	public static final boolean DEFAULT_TREE_PRUNE = false;
+	public static final boolean DEFAULT_TREE_COMPACT_STEPS = false;
+	public static final boolean DEFAULT_STACK_TRACE_DEDUP = false;
+	public static final int DEFAULT_STACK_TRACE_MAX_FRAMES = 0;
+	public static final int DEFAULT_STACK_TRACE_MAX_BYTES = 0;
+	public static final boolean DEFAULT_EXCLUDED_SCENARIO_AGGREGATE = false;
+	public static final ReportPortalStoryReporter.NotPerformedReporting DEFAULT_NOT_PERFORMED_REPORTING =
+			ReportPortalStoryReporter.NotPerformedReporting.STEPS;
+	public static final ReportPortalStoryReporter.ScenarioReporting DEFAULT_SCENARIO_REPORTING =
+			ReportPortalStoryReporter.ScenarioReporting.IMMEDIATE;
+	public static final boolean DEFAULT_CHILD_STATUS_ATTRIBUTES = false;
+	public static final ReportPortalStoryReporter.TestCaseIdStrategy DEFAULT_TEST_CASE_ID_STRATEGY =
+			ReportPortalStoryReporter.TestCaseIdStrategy.CODE_REF;
+	public static final int DEFAULT_EXAMPLE_VALUE_MAX_LENGTH = 0;
+	public static final boolean DEFAULT_LAUNCH_EAGER_START = false;
+	public static final boolean DEFAULT_LAUNCH_PER_RUN = false;
+	public static final int DEFAULT_SHUTDOWN_TIMEOUT = 0;
+	public static final Path DEFAULT_SHUTDOWN_JOURNAL_FILE = Paths.get("reportportal-shutdown.rpj");
+
+	private boolean treePrune;
+	private boolean treeCompactSteps;
+	private Path journalFile;
+	private boolean stackTraceDedup;
+	private List<String> stackTraceFilter;
+	private int stackTraceMaxFrames;
+	private int stackTraceMaxBytes;
+	private boolean excludedScenarioAggregate;
+	private ReportPortalStoryReporter.NotPerformedReporting notPerformedReporting;
+	private ReportPortalStoryReporter.ScenarioReporting scenarioReporting;
+	private boolean childStatusAttributes;
+	private ReportPortalStoryReporter.TestCaseIdStrategy testCaseIdStrategy;
+	private int exampleValueMaxLength;
+	private boolean launchEagerStart;
+	private boolean launchPerRun;
+	private int shutdownTimeout;
+	private Path shutdownJournalFile;
+
+	/**
+	 * Creates parameters with default values.
+	 */
+	public JBehaveParameters() {
+		treePrune = DEFAULT_TREE_PRUNE;
+		treeCompactSteps = DEFAULT_TREE_COMPACT_STEPS;
+		stackTraceDedup = DEFAULT_STACK_TRACE_DEDUP;
+		stackTraceFilter = Collections.emptyList();
+		stackTraceMaxFrames = DEFAULT_STACK_TRACE_MAX_FRAMES;
+		stackTraceMaxBytes = DEFAULT_STACK_TRACE_MAX_BYTES;
+		excludedScenarioAggregate = DEFAULT_EXCLUDED_SCENARIO_AGGREGATE;
+		notPerformedReporting = DEFAULT_NOT_PERFORMED_REPORTING;
+		scenarioReporting = DEFAULT_SCENARIO_REPORTING;
+		childStatusAttributes = DEFAULT_CHILD_STATUS_ATTRIBUTES;
+		testCaseIdStrategy = DEFAULT_TEST_CASE_ID_STRATEGY;
+		exampleValueMaxLength = DEFAULT_EXAMPLE_VALUE_MAX_LENGTH;
+		launchEagerStart = DEFAULT_LAUNCH_EAGER_START;
+		launchPerRun = DEFAULT_LAUNCH_PER_RUN;
+		shutdownTimeout = DEFAULT_SHUTDOWN_TIMEOUT;
+		shutdownJournalFile = DEFAULT_SHUTDOWN_JOURNAL_FILE;
+	}
+
+	/**
+	 * Creates parameters with values from a property source.
+	 *
+	 * @param properties properties loaded by the client
+	 */
+	public JBehaveParameters(@Nonnull final PropertiesLoader properties) {
+		treePrune = getBoolean(properties, JBehaveProperty.TREE_PRUNE, DEFAULT_TREE_PRUNE);
+		treeCompactSteps = getBoolean(properties, JBehaveProperty.TREE_COMPACT_STEPS, DEFAULT_TREE_COMPACT_STEPS);
+		journalFile = ofNullable(getValue(properties, JBehaveProperty.JOURNAL_FILE)).map(Paths::get).orElse(null);
+		stackTraceDedup = getBoolean(properties, JBehaveProperty.STACK_TRACE_DEDUP, DEFAULT_STACK_TRACE_DEDUP);
+		stackTraceFilter = getList(properties, JBehaveProperty.STACK_TRACE_FILTER);
+		stackTraceMaxFrames = getInt(properties, JBehaveProperty.STACK_TRACE_MAX_FRAMES, DEFAULT_STACK_TRACE_MAX_FRAMES);
+		stackTraceMaxBytes = getInt(properties, JBehaveProperty.STACK_TRACE_MAX_BYTES, DEFAULT_STACK_TRACE_MAX_BYTES);
+		excludedScenarioAggregate = getBoolean(
+				properties,
+				JBehaveProperty.EXCLUDED_SCENARIO_AGGREGATE,
+				DEFAULT_EXCLUDED_SCENARIO_AGGREGATE
+		);
+		notPerformedReporting = getEnum(
+				properties,
+				JBehaveProperty.NOT_PERFORMED_REPORTING,
+				ReportPortalStoryReporter.NotPerformedReporting.class,
+				DEFAULT_NOT_PERFORMED_REPORTING
+		);
+		scenarioReporting = getEnum(
+				properties,
+				JBehaveProperty.SCENARIO_REPORTING,
+				ReportPortalStoryReporter.ScenarioReporting.class,
+				DEFAULT_SCENARIO_REPORTING
+		);
+		childStatusAttributes = getBoolean(properties, JBehaveProperty.CHILD_STATUS_ATTRIBUTES, DEFAULT_CHILD_STATUS_ATTRIBUTES);
+		testCaseIdStrategy = getEnum(
+				properties,
+				JBehaveProperty.TEST_CASE_ID_STRATEGY,
+				ReportPortalStoryReporter.TestCaseIdStrategy.class,
+				DEFAULT_TEST_CASE_ID_STRATEGY
+		);
+		exampleValueMaxLength = getInt(properties, JBehaveProperty.EXAMPLE_VALUE_MAX_LENGTH, DEFAULT_EXAMPLE_VALUE_MAX_LENGTH);
+		launchEagerStart = getBoolean(properties, JBehaveProperty.LAUNCH_EAGER_START, DEFAULT_LAUNCH_EAGER_START);
+		launchPerRun = getBoolean(properties, JBehaveProperty.LAUNCH_PER_RUN, DEFAULT_LAUNCH_PER_RUN);
+		shutdownTimeout = getInt(properties, JBehaveProperty.SHUTDOWN_TIMEOUT, DEFAULT_SHUTDOWN_TIMEOUT);
+		shutdownJournalFile = ofNullable(getValue(properties, JBehaveProperty.SHUTDOWN_JOURNAL_FILE)).map(Paths::get)
+				.orElse(DEFAULT_SHUTDOWN_JOURNAL_FILE);
+	}
+
+	@Nullable
+	private static String getValue(@Nonnull final PropertiesLoader properties, @Nonnull final JBehaveProperty property) {
+		return ofNullable(properties.getProperty(property.getPropertyName())).map(String::trim).filter(v -> !v.isEmpty()).orElse(null);
+	}
+
+	private static boolean getBoolean(@Nonnull final PropertiesLoader properties, @Nonnull final JBehaveProperty property,
+			boolean defaultValue) {
+		return ofNullable(getValue(properties, property)).map(Boolean::parseBoolean).orElse(defaultValue);
+	}
+
+	@Nonnull
+	private static List<String> getList(@Nonnull final PropertiesLoader properties, @Nonnull final JBehaveProperty property) {
+		return ofNullable(getValue(properties, property)).map(v -> Arrays.stream(v.split(","))
+				.map(String::trim)
+				.filter(e -> !e.isEmpty())
+				.collect(Collectors.toList())).orElse(Collections.emptyList());
+	}
+
+	private static int getInt(@Nonnull final PropertiesLoader properties, @Nonnull final JBehaveProperty property, int defaultValue) {
+		String value = getValue(properties, property);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			int result = Integer.parseInt(value);
+			if (result > 0) {
+				return result;
+			}
+		} catch (NumberFormatException ignore) {
+		}
+		LOGGER.warn("Invalid value of '{}' property: '{}', using default: {}", property.getPropertyName(), value, defaultValue);
+		return defaultValue;
+	}
+
+	@Nonnull
+	private static <T extends Enum<T>> T getEnum(@Nonnull final PropertiesLoader properties, @Nonnull final JBehaveProperty property,
+			@Nonnull final Class<T> type, @Nonnull final T defaultValue) {
+		String value = getValue(properties, property);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			LOGGER.warn("Invalid value of '{}' property: '{}', using default: {}", property.getPropertyName(), value, defaultValue);
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * @return true if finished Stories should be replaced with their summaries in the Test Item Tree
+	 */
+	public boolean isTreePrune() {
+		return treePrune;
+	}
+
+	public void setTreePrune(boolean treePrune) {
+		this.treePrune = treePrune;
+	}
+
+	/**
+	 * @return true if Step leaves of the Test Item Tree should keep only compact code references, without start requests and code
+	 * reference strings
+	 */
+	public boolean isTreeCompactSteps() {
+		return treeCompactSteps;
+	}
+
+	public void setTreeCompactSteps(boolean treeCompactSteps) {
+		this.treeCompactSteps = treeCompactSteps;
+	}
+
+	/**
+	 * @return a path to a journal file, which all reporting requests are written to instead of sending them to Report Portal, or null
+	 * if requests should be sent as usual
+	 * @see com.epam.reportportal.jbehave.journal.JournalReportPortalClient
+	 */
+	@Nullable
+	public Path getJournalFile() {
+		return journalFile;
+	}
+
+	public void setJournalFile(@Nullable Path journalFile) {
+		this.journalFile = journalFile;
+	}
+
+	/**
+	 * @return true if a stack trace, which was already reported within the Launch, should be replaced with a reference to its first
+	 * occurrence
+	 * @see StackTraceRegistry
+	 */
+	public boolean isStackTraceDedup() {
+		return stackTraceDedup;
+	}
+
+	public void setStackTraceDedup(boolean stackTraceDedup) {
+		this.stackTraceDedup = stackTraceDedup;
+	}
+
+	/**
+	 * @return prefixes of class names, which stack trace frames should be elided in failure logs
+	 * @see com.epam.reportportal.jbehave.util.StackTraceFormatter
+	 */
+	@Nonnull
+	public List<String> getStackTraceFilter() {
+		return stackTraceFilter;
+	}
+
+	public void setStackTraceFilter(@Nonnull List<String> stackTraceFilter) {
+		this.stackTraceFilter = stackTraceFilter;
+	}
+
+	/**
+	 * @return maximum number of stack trace frames of an exception in failure logs, 0 - unlimited
+	 */
+	public int getStackTraceMaxFrames() {
+		return stackTraceMaxFrames;
+	}
+
+	public void setStackTraceMaxFrames(int stackTraceMaxFrames) {
+		this.stackTraceMaxFrames = stackTraceMaxFrames;
+	}
+
+	/**
+	 * @return maximum size of a stack trace in failure logs in bytes, 0 - unlimited
+	 */
+	public int getStackTraceMaxBytes() {
+		return stackTraceMaxBytes;
+	}
+
+	public void setStackTraceMaxBytes(int stackTraceMaxBytes) {
+		this.stackTraceMaxBytes = stackTraceMaxBytes;
+	}
+
+	/**
+	 * @return true if a Scenario excluded by a meta filter should be reported as a single SKIPPED item instead of skipped Examples and
+	 * Steps
+	 */
+	public boolean isExcludedScenarioAggregate() {
+		return excludedScenarioAggregate;
+	}
+
+	public void setExcludedScenarioAggregate(boolean excludedScenarioAggregate) {
+		this.excludedScenarioAggregate = excludedScenarioAggregate;
+	}
+
+	/**
+	 * @return how steps, which were not performed by JBehave after a failed step, should be reported
+	 */
+	@Nonnull
+	public ReportPortalStoryReporter.NotPerformedReporting getNotPerformedReporting() {
+		return notPerformedReporting;
+	}
+
+	public void setNotPerformedReporting(@Nonnull ReportPortalStoryReporter.NotPerformedReporting notPerformedReporting) {
+		this.notPerformedReporting = notPerformedReporting;
+	}
+
+	/**
+	 * @return when Test Items of a Scenario should be sent to Report Portal
+	 * @see ScenarioBuffer
+	 */
+	@Nonnull
+	public ReportPortalStoryReporter.ScenarioReporting getScenarioReporting() {
+		return scenarioReporting;
+	}
+
+	public void setScenarioReporting(@Nonnull ReportPortalStoryReporter.ScenarioReporting scenarioReporting) {
+		this.scenarioReporting = scenarioReporting;
+	}
+
+	/**
+	 * @return true if numbers of child items by their statuses should be added to attributes of parent items on finish
+	 * @see com.epam.reportportal.jbehave.util.StatusAggregate
+	 */
+	public boolean isChildStatusAttributes() {
+		return childStatusAttributes;
+	}
+
+	public void setChildStatusAttributes(boolean childStatusAttributes) {
+		this.childStatusAttributes = childStatusAttributes;
+	}
+
+	/**
+	 * @return how Test Case IDs of items should be generated
+	 */
+	@Nonnull
+	public ReportPortalStoryReporter.TestCaseIdStrategy getTestCaseIdStrategy() {
+		return testCaseIdStrategy;
+	}
+
+	public void setTestCaseIdStrategy(@Nonnull ReportPortalStoryReporter.TestCaseIdStrategy testCaseIdStrategy) {
+		this.testCaseIdStrategy = testCaseIdStrategy;
+	}
+
+	/**
+	 * @return maximum length of Example values in item parameters and descriptions, longer values are truncated; 0 - unlimited
+	 */
+	public int getExampleValueMaxLength() {
+		return exampleValueMaxLength;
+	}
+
+	public void setExampleValueMaxLength(int exampleValueMaxLength) {
+		this.exampleValueMaxLength = exampleValueMaxLength;
+	}
+
+	/**
+	 * @return start a launch in background threads on the first Story reporter creation instead of on the first reported item
+	 */
+	public boolean isLaunchEagerStart() {
+		return launchEagerStart;
+	}
+
+	public void setLaunchEagerStart(boolean launchEagerStart) {
+		this.launchEagerStart = launchEagerStart;
+	}
+
+	/**
+	 * @return finish a launch at the end of each JBehave Embedder run, so the next run in the same JVM is reported as a new launch
+	 */
+	public boolean isLaunchPerRun() {
+		return launchPerRun;
+	}
+
+	public void setLaunchPerRun(boolean launchPerRun) {
+		this.launchPerRun = launchPerRun;
+	}
+
+	/**
+	 * @return time in seconds to send pending requests on JVM shutdown, requests which are not sent in time are written into
+	 * {@link #getShutdownJournalFile()}; 0 - wait for all requests as usual
+	 */
+	public int getShutdownTimeout() {
+		return shutdownTimeout;
+	}
+
+	public void setShutdownTimeout(int shutdownTimeout) {
+		this.shutdownTimeout = shutdownTimeout;
+	}
+
+	/**
+	 * @return a path to the journal file which requests not sent within the shutdown timeout are written to
+	 */
+	@Nonnull
+	public Path getShutdownJournalFile() {
+		return shutdownJournalFile;
+	}
+
+	public void setShutdownJournalFile(@Nonnull Path shutdownJournalFile) {
+		this.shutdownJournalFile = shutdownJournalFile;
+	}
+}
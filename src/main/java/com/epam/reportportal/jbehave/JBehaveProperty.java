@@ -0,0 +1,56 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * JBehave agent specific properties, which can be set in 'reportportal.properties' file, JVM system properties or environment
+ * variables in the same way as common client properties.
+ *
+ * @author Vadzim Hushchanskou
+ */
+public enum JBehaveProperty {
+	TREE_PRUNE("rp.jbehave.tree.prune"),
+	TREE_COMPACT_STEPS("rp.jbehave.tree.compact.steps"),
+	JOURNAL_FILE("rp.jbehave.journal.file"),
+	STACK_TRACE_DEDUP("rp.jbehave.stacktrace.dedup"),
+	STACK_TRACE_FILTER("rp.jbehave.stacktrace.filter"),
+	STACK_TRACE_MAX_FRAMES("rp.jbehave.stacktrace.max.frames"),
+	STACK_TRACE_MAX_BYTES("rp.jbehave.stacktrace.max.bytes"),
+	EXCLUDED_SCENARIO_AGGREGATE("rp.jbehave.excluded.aggregate"),
+	NOT_PERFORMED_REPORTING("rp.jbehave.not.performed"),
+	SCENARIO_REPORTING("rp.jbehave.scenario.reporting"),
+	CHILD_STATUS_ATTRIBUTES("rp.jbehave.child.status.attributes"),
+	TEST_CASE_ID_STRATEGY("rp.jbehave.test.case.id"),
+	EXAMPLE_VALUE_MAX_LENGTH("rp.jbehave.example.value.max.length"),
+	LAUNCH_EAGER_START("rp.jbehave.launch.eager"),
+	LAUNCH_PER_RUN("rp.jbehave.launch.per.run"),
+	SHUTDOWN_TIMEOUT("rp.jbehave.shutdown.timeout"),
+	SHUTDOWN_JOURNAL_FILE("rp.jbehave.shutdown.journal.file");
+
+	private final String propertyName;
+
+	JBehaveProperty(@Nonnull final String name) {
+		propertyName = name;
+	}
+
+	@Nonnull
+	public String getPropertyName() {
+		return propertyName;
+	}
+}
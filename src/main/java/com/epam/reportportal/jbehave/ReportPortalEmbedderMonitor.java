@@ -0,0 +1,50 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import jakarta.annotation.Nonnull;
+import org.jbehave.core.embedder.EmbedderMonitor;
+import org.jbehave.core.embedder.MetaFilter;
+import org.jbehave.core.embedder.PrintStreamEmbedderMonitor;
+import org.jbehave.core.model.Scenario;
+
+import java.io.PrintStream;
+
+/**
+ * JBehave {@link EmbedderMonitor} which passes Scenarios excluded by a meta filter to the current thread Story reporter. JBehave reports
+ * such Scenarios only to the Embedder monitor, so the monitor should be set to the Embedder to report them with
+ * {@link JBehaveParameters#isExcludedScenarioAggregate()} option. All events are also printed as {@link PrintStreamEmbedderMonitor}
+ * does.
+ *
+ * @author Vadzim Hushchanskou
+ */
+public class ReportPortalEmbedderMonitor extends PrintStreamEmbedderMonitor {
+
+	public ReportPortalEmbedderMonitor() {
+		super();
+	}
+
+	public ReportPortalEmbedderMonitor(@Nonnull final PrintStream output) {
+		super(output);
+	}
+
+	@Override
+	public void scenarioExcluded(Scenario scenario, MetaFilter filter) {
+		super.scenarioExcluded(scenario, filter);
+		ReportPortalFormat.getCurrentStoryReporter().ifPresent(r -> r.scenarioExcluded(scenario, filter));
+	}
+}
@@ -15,26 +15,48 @@
  */
 package com.epam.reportportal.jbehave;
 
+import com.epam.reportportal.jbehave.journal.JournalReportPortalClient;
+import com.epam.reportportal.jbehave.journal.SpillingReportPortalClient;
+import com.epam.reportportal.listeners.ItemStatus;
 import com.epam.reportportal.listeners.ListenerParameters;
 import com.epam.reportportal.service.Launch;
 import com.epam.reportportal.service.ReportPortal;
 import com.epam.reportportal.service.tree.TestItemTree;
 import com.epam.reportportal.utils.MemoizingSupplier;
+import com.epam.reportportal.utils.properties.PropertiesLoader;
 import com.epam.reportportal.utils.properties.SystemAttributesExtractor;
 import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
 import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
 import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import io.reactivex.Maybe;
+import io.reactivex.subjects.MaybeSubject;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.jbehave.core.reporters.DelegatingStoryReporter;
 import org.jbehave.core.reporters.FilePrintStreamFactory;
 import org.jbehave.core.reporters.Format;
 import org.jbehave.core.reporters.StoryReporter;
 import org.jbehave.core.reporters.StoryReporterBuilder;
+import org.jbehave.core.steps.StepCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
+import static java.util.Optional.ofNullable;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 /**
@@ -43,46 +65,336 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
  * @author Vadzim Hushchanskou
  */
 public abstract class ReportPortalFormat extends Format {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReportPortalFormat.class);
 
 	private static final ThreadLocal<ReportPortalFormat> INSTANCES = new InheritableThreadLocal<>();
 	private static final ThreadLocal<ReportPortalStoryReporter> STORY_REPORTERS = new InheritableThreadLocal<>();
 
 	private static final String SKIPPED_ISSUE_KEY = "skippedIssue";
 	private static final String AGENT_PROPERTIES_FILE = "agent.properties";
+	private static final String LAUNCH_STARTER_THREAD_NAME = "rp-jbehave-launch";
+	private static final int LAUNCH_STARTER_THREADS = 2;
+	private static final String LAUNCH_FINISHER_THREAD_NAME = "rp-jbehave-shutdown";
+	private static final Duration SPILL_TIMEOUT = Duration.ofSeconds(5);
 
 	protected final MemoizingSupplier<Launch> launch;
 	protected final TestItemTree itemTree = new TestItemTree();
+	protected final StackTraceRegistry stackTraces = new StackTraceRegistry();
+	/**
+	 * A Report Portal reporter which the formatter was created with, or null if it's initialized on the first use
+	 *
+	 * @see #getReportPortalSupplier()
+	 */
 	protected final ReportPortal rp;
 
+	private final MemoizingSupplier<ReportPortal> reportPortalSupplier;
+	private final MemoizingSupplier<JBehaveParameters> parameters;
+
+	private final AtomicBoolean shutdownHookAdded = new AtomicBoolean();
+	private volatile SpillingReportPortalClient spillingClient;
+	private volatile JournalReportPortalClient journalClient;
+	private final AtomicBoolean eagerStartRequested = new AtomicBoolean();
+	private volatile CompletableFuture<Set<ItemAttributesRQ>> systemAttributes;
+
 	/**
-	 * Creates an instance of the formatter class using specific {@link ReportPortal} reporter.
+	 * Creates an instance of the formatter class using specific {@link ReportPortal} reporter. JBehave agent parameters are loaded
+	 * from the same sources as the client properties on the first use.
 	 *
 	 * @param reportPortal an instance of Report Portal reporter
 	 */
 	public ReportPortalFormat(final ReportPortal reportPortal) {
+		this(reportPortal, () -> reportPortal, ReportPortalFormat::loadParameters);
+	}
+
+	/**
+	 * Creates an instance of the formatter class using specific {@link ReportPortal} reporter and JBehave agent parameters.
+	 *
+	 * @param reportPortal    an instance of Report Portal reporter
+	 * @param agentParameters JBehave agent parameters
+	 */
+	public ReportPortalFormat(final ReportPortal reportPortal, final JBehaveParameters agentParameters) {
+		this(reportPortal, () -> reportPortal, () -> agentParameters);
+	}
+
+	/**
+	 * Creates an instance of the formatter class which initializes {@link ReportPortal} reporter on the first use, so no client
+	 * properties are read and no HTTP clients or threads are created until something is reported. JBehave agent parameters are loaded
+	 * from the same sources as the client properties on the first use.
+	 *
+	 * @param reportPortal a supplier of Report Portal reporter, it's called once
+	 */
+	protected ReportPortalFormat(@Nonnull final Supplier<ReportPortal> reportPortal) {
+		this(null, reportPortal, ReportPortalFormat::loadParameters);
+	}
+
+	/**
+	 * Creates an instance of the formatter class which initializes {@link ReportPortal} reporter on the first use.
+	 *
+	 * @param reportPortal    a supplier of Report Portal reporter, it's called once
+	 * @param agentParameters JBehave agent parameters
+	 */
+	protected ReportPortalFormat(@Nonnull final Supplier<ReportPortal> reportPortal, final JBehaveParameters agentParameters) {
+		this(null, reportPortal, () -> agentParameters);
+	}
+
+	private ReportPortalFormat(@Nullable final ReportPortal reportPortal, @Nonnull final Supplier<ReportPortal> reportPortalFactory,
+			@Nonnull final Supplier<JBehaveParameters> agentParameters) {
 		super("REPORT_PORTAL");
 		rp = reportPortal;
-		launch = createLaunch(rp);
+		parameters = new MemoizingSupplier<>(agentParameters);
+		reportPortalSupplier = new MemoizingSupplier<>(() -> {
+			ReportPortal client = reportPortalFactory.get();
+			JBehaveParameters params = getParameters();
+			return ofNullable(params.getJournalFile()).map(f -> createJournalReportPortal(client, f))
+					.orElseGet(() -> params.getShutdownTimeout() > 0 ? createSpillingReportPortal(client) : client);
+		});
+		launch = rp == null ? createLaunch(reportPortalSupplier) : createLaunch(rp);
 		INSTANCES.set(this);
 	}
 
+	@Nonnull
+	private static JBehaveParameters loadParameters() {
+		return new JBehaveParameters(PropertiesLoader.load());
+	}
+
+	/**
+	 * Creates a {@link ReportPortal} instance which writes all reporting requests into a local journal file instead of sending them to
+	 * Report Portal. The journal can be uploaded later.
+	 *
+	 * @param reportPortal an instance of Report Portal reporter which parameters are used
+	 * @param journalFile  a path to the journal file
+	 * @return a Report Portal reporter which writes to the journal, or the original one if the journal cannot be opened
+	 */
+	@Nonnull
+	protected ReportPortal createJournalReportPortal(@Nonnull final ReportPortal reportPortal, @Nonnull final Path journalFile) {
+		try {
+			JournalReportPortalClient client = new JournalReportPortalClient(journalFile);
+			journalClient = client;
+			return ReportPortal.create(client, reportPortal.getParameters());
+		} catch (IOException e) {
+			LOGGER.error("Unable to open journal file '{}', reporting to Report Portal directly", journalFile, e);
+			return reportPortal;
+		}
+	}
+
+	/**
+	 * Creates a {@link ReportPortal} instance which sends requests as usual, but on JVM shutdown sends pending requests in priority order
+	 * within the shutdown timeout and writes the rest into a local journal.
+	 *
+	 * @param reportPortal an instance of Report Portal reporter which client and parameters are used
+	 * @return a Report Portal reporter with a deadline-bounded shutdown flush
+	 * @see JBehaveParameters#getShutdownTimeout()
+	 */
+	@Nonnull
+	protected ReportPortal createSpillingReportPortal(@Nonnull final ReportPortal reportPortal) {
+		SpillingReportPortalClient client = new SpillingReportPortalClient(reportPortal.getClient(), getParameters().getShutdownJournalFile());
+		spillingClient = client;
+		return ReportPortal.create(client, reportPortal.getParameters());
+	}
+
+	/**
+	 * Creates an executor with threads which start a launch in background in eager launch start mode. The executor is shut down once the
+	 * launch start is submitted, so its threads exit when the launch is started.
+	 *
+	 * @return an executor service
+	 * @see JBehaveParameters#isLaunchEagerStart()
+	 */
+	@Nonnull
+	protected ExecutorService createLaunchStarter() {
+		return Executors.newFixedThreadPool(LAUNCH_STARTER_THREADS, r -> {
+			Thread t = new Thread(r, LAUNCH_STARTER_THREAD_NAME);
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * Starts the current {@link Launch} in background if eager launch start is enabled, so the launch start request is sent while
+	 * JBehave prepares and runs BeforeStories steps. Called on the first Story reporter creation, a runner can call it even earlier.
+	 * Does nothing if the launch is already started or its start is requested.
+	 *
+	 * @see JBehaveParameters#isLaunchEagerStart()
+	 */
+	public void startLaunchEagerly() {
+		if (!getParameters().isLaunchEagerStart() || launch.isInitialized() || !eagerStartRequested.compareAndSet(false, true)) {
+			return;
+		}
+		ExecutorService launchStarter = createLaunchStarter();
+		systemAttributes = CompletableFuture.supplyAsync(ReportPortalFormat::extractSystemAttributes, launchStarter);
+		CompletableFuture.runAsync(launch::get, launchStarter).whenComplete((r, e) -> {
+			if (e != null) {
+				// The launch will be started again on the first reported item
+				LOGGER.warn("Unable to start launch in background", e);
+			}
+		});
+		launchStarter.shutdown();
+	}
+
+	@Nonnull
+	private static Set<ItemAttributesRQ> extractSystemAttributes() {
+		return SystemAttributesExtractor.extract(AGENT_PROPERTIES_FILE, JBehaveUtils.class.getClassLoader());
+	}
+
+	@Nonnull
+	private Set<ItemAttributesRQ> getSystemAttributes() {
+		CompletableFuture<Set<ItemAttributesRQ>> attributes = systemAttributes;
+		if (attributes == null) {
+			return extractSystemAttributes();
+		}
+		return attributes.exceptionally(e -> extractSystemAttributes()).join();
+	}
+
 	/**
-	 * Finishes a {@link Launch} passed in the method parameters
+	 * Checks if a Test Item Tree leaf was finished. A status is set only on finish, but finish requests of steps are not stored in
+	 * their leaves.
+	 *
+	 * @param leaf a Test Item Tree leaf
+	 * @return true if the item was finished
 	 */
-	public void finishLaunch() {
-		FinishExecutionRQ rq = new FinishExecutionRQ();
-		rq.setEndTime(Instant.now());
-		launch.get().finish(rq);
+	private static boolean isFinished(@Nonnull final TestItemTree.TestItemLeaf leaf) {
+		return leaf.getFinishResponse() != null || leaf.getStatus() != null;
+	}
+
+	/**
+	 * Checks if an item was put into a {@link ScenarioBuffer} and was never sent to Report Portal, so there is nothing to finish.
+	 *
+	 * @param leaf a Test Item Tree leaf
+	 * @return true if the item ID will never be known
+	 */
+	private static boolean isNotSent(@Nonnull final TestItemTree.TestItemLeaf leaf) {
+		Maybe<String> itemId = leaf.getItemId();
+		if (!(itemId instanceof MaybeSubject)) {
+			return false;
+		}
+		MaybeSubject<?> subject = (MaybeSubject<?>) itemId;
+		return !subject.hasValue() && !subject.hasComplete() && !subject.hasThrowable();
+	}
+
+	/**
+	 * Finishes items of a subtree which were started but not finished, children first.
+	 *
+	 * @param launch  the current Launch
+	 * @param leaf    the root of the subtree
+	 * @param endTime an end time of the items
+	 * @return the number of finished items
+	 */
+	private int finishOrphanedItems(@Nonnull final Launch launch, @Nonnull final TestItemTree.TestItemLeaf leaf,
+			@Nonnull final Instant endTime) {
+		int finished = leaf.getChildItems().values().stream().mapToInt(c -> finishOrphanedItems(launch, c, endTime)).sum();
+		if (isFinished(leaf) || isNotSent(leaf)) {
+			return finished;
+		}
+		FinishTestItemRQ rq = new FinishTestItemRQ();
+		rq.setEndTime(endTime);
+		rq.setStatus(ItemStatus.INTERRUPTED.name());
+		leaf.setStatus(ItemStatus.INTERRUPTED);
+		leaf.setFinishResponse(launch.finishTestItem(leaf.getItemId(), rq));
+		return finished + 1;
+	}
+
+	/**
+	 * Finishes with {@link ItemStatus#INTERRUPTED} status all items in the Test Item Tree which were started but not finished, e.g. if
+	 * a Story hung or was cancelled, or the JVM was stopped in the middle of a run. Child items are finished before their parents, Stories
+	 * are processed in parallel.
+	 *
+	 * @param launch the current Launch
+	 */
+	protected void finishOrphanedItems(@Nonnull final Launch launch) {
+		Instant endTime = Instant.now();
+		int finished = itemTree.getTestItems().values().parallelStream().mapToInt(l -> finishOrphanedItems(launch, l, endTime)).sum();
+		if (finished > 0) {
+			LOGGER.warn("{} unfinished items were finished with {} status", finished, ItemStatus.INTERRUPTED);
+		}
+	}
+
+	/**
+	 * Finishes the current {@link Launch} if it was started and prepares the formatter for the next one: the Test Item Tree and
+	 * registered stack traces are cleared, so the next reported item starts a new Launch. Items which were not finished by the time are
+	 * finished with {@link ItemStatus#INTERRUPTED} status.
+	 */
+	public synchronized void finishLaunch() {
+		if (launch.isInitialized()) {
+			Launch myLaunch = launch.get();
+			finishOrphanedItems(myLaunch);
+			FinishExecutionRQ rq = new FinishExecutionRQ();
+			rq.setEndTime(Instant.now());
+			myLaunch.finish(rq);
+		}
+		launch.reset();
+		eagerStartRequested.set(false);
+		itemTree.getTestItems().clear();
+		stackTraces.clear();
+	}
+
+	/**
+	 * Finishes the current {@link Launch} within the shutdown timeout. Requests which are not sent in time are written into the shutdown
+	 * journal, the outcome is printed into the standard error stream, since logging could be already stopped on JVM shutdown.
+	 *
+	 * @param client a client which sends or writes the requests
+	 * @see JBehaveParameters#getShutdownTimeout()
+	 */
+	private void finishLaunchWithinTimeout(@Nonnull final SpillingReportPortalClient client) {
+		Duration timeout = Duration.ofSeconds(getParameters().getShutdownTimeout());
+		long start = System.nanoTime();
+		client.flush(timeout);
+		Thread finisher = new Thread(this::finishLaunch, LAUNCH_FINISHER_THREAD_NAME);
+		finisher.setDaemon(true);
+		finisher.start();
+		try {
+			finisher.join(timeout.plus(SPILL_TIMEOUT).toMillis());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		try {
+			client.close();
+		} catch (IOException e) {
+			System.err.printf("Report Portal: unable to close journal file '%s': %s%n", client.getJournalFile(), e);
+		}
+		long spent = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		System.err.printf(
+				"Report Portal: launch %s in %d ms of %d s shutdown timeout, %d requests sent, %d requests written to '%s'%s%n",
+				finisher.isAlive() ? "was not finished" : "finished",
+				spent,
+				timeout.getSeconds(),
+				client.getSentCount(),
+				client.getSpilledCount(),
+				client.getJournalFile(),
+				client.getLostCount() > 0 ? String.format(", %d requests lost", client.getLostCount()) : ""
+		);
+	}
+
+	/**
+	 * Closes the journal client, if the formatter writes requests into a journal, so the journal file is flushed and cut to its records.
+	 */
+	private void closeJournal() {
+		JournalReportPortalClient client = journalClient;
+		if (client == null) {
+			return;
+		}
+		try {
+			client.close();
+		} catch (IOException e) {
+			System.err.printf("Report Portal: unable to close journal file '%s': %s%n", getParameters().getJournalFile(), e);
+		}
 	}
 
 	/**
 	 * Returns a {@link Thread} which is supposed to run on test execution shutdown. By default it finishes the current test execution on
-	 * Report Portal.
+	 * Report Portal. If the shutdown timeout is set, requests which are not sent within it are written into the shutdown journal. If
+	 * requests are written into a journal instead of Report Portal, the journal is closed after the launch finish.
 	 *
 	 * @return a thread to run on JVM shutdown event
 	 */
 	protected Thread getShutdownHook() {
-		return new Thread(this::finishLaunch);
+		return new Thread(() -> {
+			SpillingReportPortalClient client = spillingClient;
+			if (client != null && launch.isInitialized()) {
+				finishLaunchWithinTimeout(client);
+			} else {
+				finishLaunch();
+			}
+			closeJournal();
+		});
 	}
 
 	/**
@@ -110,27 +422,43 @@ public abstract class ReportPortalFormat extends Format {
 			skippedIssueAttribute.setSystem(true);
 			rq.getAttributes().add(skippedIssueAttribute);
 		}
-		rq.getAttributes().addAll(SystemAttributesExtractor.extract(AGENT_PROPERTIES_FILE, JBehaveUtils.class.getClassLoader()));
+		rq.getAttributes().addAll(getSystemAttributes());
 		return rq;
 	}
 
 	/**
-	 * Returns a supplier which initialize a launch on the first 'get'.
+	 * Returns a supplier which initialize a launch on the first 'get'. Called on construction of a formatter created with a
+	 * {@link ReportPortal} instance, formatters which initialize the instance on the first use call {@link #createLaunch(Supplier)}.
 	 *
 	 * @param rp a ReportPortal class instance which will be used to communicate with the portal
 	 * @return a supplier with a lazy-initialized {@link Launch} instance
 	 */
 	protected MemoizingSupplier<Launch> createLaunch(final ReportPortal rp) {
+		// the formatter's own instance is wrapped with a journal client on the first use, if it's configured
+		return createLaunch(rp == this.rp ? reportPortalSupplier : () -> rp);
+	}
+
+	/**
+	 * Returns a supplier which initialize a launch on the first 'get'. The ReportPortal instance is also requested on the first 'get'.
+	 *
+	 * @param rp a supplier of ReportPortal class instance which will be used to communicate with the portal
+	 * @return a supplier with a lazy-initialized {@link Launch} instance
+	 */
+	protected MemoizingSupplier<Launch> createLaunch(final Supplier<ReportPortal> rp) {
 		return new MemoizingSupplier<>(new Supplier<>() {
-			/* should no be lazy */
-			private final Instant startTime = Instant.now();
+			/* should no be lazy for the first launch, next launches start on their first reported item */
+			private Instant startTime = Instant.now();
 
 			@Override
 			public Launch get() {
-				ListenerParameters parameters = rp.getParameters();
-				StartLaunchRQ rq = buildStartLaunchRQ(startTime, parameters);
-				Launch myLaunch = rp.newLaunch(rq);
-				Runtime.getRuntime().addShutdownHook(getShutdownHook());
+				ReportPortal reportPortal = rp.get();
+				ListenerParameters parameters = reportPortal.getParameters();
+				StartLaunchRQ rq = buildStartLaunchRQ(ofNullable(startTime).orElseGet(Instant::now), parameters);
+				startTime = null;
+				Launch myLaunch = reportPortal.newLaunch(rq);
+				if (shutdownHookAdded.compareAndSet(false, true)) {
+					Runtime.getRuntime().addShutdownHook(getShutdownHook());
+				}
 				itemTree.setLaunchId(myLaunch.start());
 				return myLaunch;
 			}
@@ -146,20 +474,66 @@ public abstract class ReportPortalFormat extends Format {
 	 */
 	@Override
 	public StoryReporter createStoryReporter(FilePrintStreamFactory factory, StoryReporterBuilder storyReporterBuilder) {
+		startLaunchEagerly();
 		ReportPortalStoryReporter reporter = createReportPortalReporter(factory, storyReporterBuilder);
+		reporter.setStackTraceRegistry(stackTraces);
 		STORY_REPORTERS.set(reporter);
-		return reporter;
+		return getParameters().isLaunchPerRun() ? finishingLaunchAfterStories(reporter) : reporter;
+	}
+
+	/**
+	 * Wraps a {@link StoryReporter} to finish the current Launch when JBehave reports the end of AfterStories steps, which is the last
+	 * event of an Embedder run.
+	 *
+	 * @param reporter a reporter to wrap
+	 * @return a reporter which finishes the Launch at the end of the run
+	 * @see JBehaveParameters#isLaunchPerRun()
+	 */
+	@Nonnull
+	protected StoryReporter finishingLaunchAfterStories(@Nonnull final StoryReporter reporter) {
+		return new DelegatingStoryReporter(reporter) {
+			@Override
+			public void afterStoriesSteps(StepCollector.Stage stage) {
+				super.afterStoriesSteps(stage);
+				if (StepCollector.Stage.AFTER == stage) {
+					finishLaunch();
+				}
+			}
+		};
 	}
 
 	protected abstract ReportPortalStoryReporter createReportPortalReporter(FilePrintStreamFactory factory,
 			StoryReporterBuilder storyReporterBuilder);
 
 	/**
+	 * Returns a ReportPortal class instance, it's initialized on the first call if the formatter was created with a supplier.
+	 *
 	 * @return a ReportPortal class instance which is used to communicate with the portal
 	 */
 	@Nonnull
 	public ReportPortal getReportPortal() {
-		return rp;
+		return reportPortalSupplier.get();
+	}
+
+	/**
+	 * Returns a supplier of the ReportPortal class instance which is used to communicate with the portal. The instance is initialized on
+	 * the first 'get' and wrapped with a journal client if it's configured.
+	 *
+	 * @return a supplier with a lazy-initialized {@link ReportPortal} instance
+	 */
+	@Nonnull
+	protected Supplier<ReportPortal> getReportPortalSupplier() {
+		return reportPortalSupplier;
+	}
+
+	/**
+	 * Returns JBehave agent parameters, they are loaded on the first call if the formatter was created without them.
+	 *
+	 * @return JBehave agent parameters
+	 */
+	@Nonnull
+	public JBehaveParameters getParameters() {
+		return parameters.get();
 	}
 
 	/**
@@ -19,6 +19,8 @@ import com.epam.reportportal.service.ReportPortal;
 import org.jbehave.core.reporters.FilePrintStreamFactory;
 import org.jbehave.core.reporters.StoryReporterBuilder;
 
+import java.util.function.Supplier;
+
 /**
  * A format to report JBehave runs into Report Portal application. Each Scenario reported with the format will have its own statistics.
  * Steps will not have it.
@@ -26,22 +28,33 @@ import org.jbehave.core.reporters.StoryReporterBuilder;
  * @author Vadzim Hushchanskou
  */
 public class ReportPortalScenarioFormat extends ReportPortalFormat {
+	/**
+	 * A shared format instance. Report Portal client is initialized on the first use, not on the class loading.
+	 */
 	public static final ReportPortalScenarioFormat INSTANCE = new ReportPortalScenarioFormat();
 
 	public ReportPortalScenarioFormat() {
-		this(ReportPortal.builder().build());
+		this(() -> ReportPortal.builder().build());
+	}
+
+	public ReportPortalScenarioFormat(final Supplier<ReportPortal> reportPortal) {
+		super(reportPortal);
 	}
 
 	public ReportPortalScenarioFormat(final ReportPortal reportPortal) {
 		super(reportPortal);
 	}
 
+	public ReportPortalScenarioFormat(final ReportPortal reportPortal, final JBehaveParameters agentParameters) {
+		super(reportPortal, agentParameters);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	protected ReportPortalStoryReporter createReportPortalReporter(FilePrintStreamFactory factory,
 			StoryReporterBuilder storyReporterBuilder) {
-		return new ReportPortalScenarioStoryReporter(launch, itemTree);
+		return new ReportPortalScenarioStoryReporter(launch, itemTree, getParameters());
 	}
 }
@@ -42,6 +42,10 @@ public class ReportPortalScenarioStoryReporter extends ReportPortalStoryReporter
 		super(launchSupplier, testItemTree);
 	}
 
+	public ReportPortalScenarioStoryReporter(final Supplier<Launch> launchSupplier, TestItemTree testItemTree, JBehaveParameters agentParameters) {
+		super(launchSupplier, testItemTree, agentParameters);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -19,6 +19,8 @@ import com.epam.reportportal.service.ReportPortal;
 import org.jbehave.core.reporters.FilePrintStreamFactory;
 import org.jbehave.core.reporters.StoryReporterBuilder;
 
+import java.util.function.Supplier;
+
 /**
  * A format to report JBehave runs into Report Portal application. Each Scenario Step reported with the format will have its own statistics.
  * Scenarios will not have it.
@@ -28,21 +30,32 @@ import org.jbehave.core.reporters.StoryReporterBuilder;
  */
 @Deprecated
 public class ReportPortalStepFormat extends ReportPortalFormat {
+	/**
+	 * A shared format instance. Report Portal client is initialized on the first use, not on the class loading.
+	 */
 	public static final ReportPortalStepFormat INSTANCE = new ReportPortalStepFormat();
 
 	public ReportPortalStepFormat() {
-		this(ReportPortal.builder().build());
+		this(() -> ReportPortal.builder().build());
+	}
+
+	public ReportPortalStepFormat(final Supplier<ReportPortal> reportPortal) {
+		super(reportPortal);
 	}
 
 	public ReportPortalStepFormat(final ReportPortal reportPortal) {
 		super(reportPortal);
 	}
 
+	public ReportPortalStepFormat(final ReportPortal reportPortal, final JBehaveParameters agentParameters) {
+		super(reportPortal, agentParameters);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public ReportPortalStoryReporter createReportPortalReporter(FilePrintStreamFactory factory, StoryReporterBuilder storyReporterBuilder) {
-		return new ReportPortalStepStoryReporter(launch, itemTree);
+		return new ReportPortalStepStoryReporter(launch, itemTree, getParameters());
 	}
 }
@@ -32,4 +32,8 @@ public class ReportPortalStepStoryReporter extends ReportPortalStoryReporter {
 	public ReportPortalStepStoryReporter(final Supplier<Launch> launchSupplier, TestItemTree testItemTree) {
 		super(launchSupplier, testItemTree);
 	}
+
+	public ReportPortalStepStoryReporter(final Supplier<Launch> launchSupplier, TestItemTree testItemTree, JBehaveParameters agentParameters) {
+		super(launchSupplier, testItemTree, agentParameters);
+	}
 }
@@ -15,13 +15,21 @@
  */
 package com.epam.reportportal.jbehave;
 
+import com.epam.reportportal.jbehave.util.BoundedCache;
+import com.epam.reportportal.jbehave.util.CodeReference;
 import com.epam.reportportal.jbehave.util.ItemTreeUtils;
+import com.epam.reportportal.jbehave.util.StackTraceFormatter;
+import com.epam.reportportal.jbehave.util.StatusAggregate;
+import com.epam.reportportal.jbehave.util.StepTemplate;
+import com.epam.reportportal.jbehave.util.TestCaseIdHash;
 import com.epam.reportportal.listeners.ItemStatus;
 import com.epam.reportportal.listeners.ItemType;
 import com.epam.reportportal.listeners.LogLevel;
 import com.epam.reportportal.service.Launch;
+import com.epam.reportportal.service.LoggingContext;
 import com.epam.reportportal.service.ReportPortal;
 import com.epam.reportportal.service.item.TestCaseIdEntry;
+import com.epam.reportportal.service.step.StepReporter;
 import com.epam.reportportal.service.tree.TestItemTree;
 import com.epam.reportportal.utils.StatusEvaluation;
 import com.epam.reportportal.utils.TestCaseIdUtils;
@@ -37,10 +45,10 @@ import io.reactivex.Maybe;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.exception.ExceptionUtils;
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.Pair;
+import org.jbehave.core.embedder.MetaFilter;
 import org.jbehave.core.model.*;
 import org.jbehave.core.reporters.NullStoryReporter;
+import org.jbehave.core.steps.StepCollector;
 import org.jbehave.core.steps.StepCreator;
 import org.jbehave.core.steps.Timing;
 import org.slf4j.Logger;
@@ -51,8 +59,6 @@ import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static java.util.Optional.ofNullable;
@@ -60,6 +66,10 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 
 /**
  * JBehave Reporter for reporting results into ReportPortal.
+ * <p>
+ * JBehave creates a separate reporter instance for every Story (and for BeforeStories / AfterStories steps), so Story structure is
+ * isolated inside the instance and instances of parallel Stories share only the Test Item Tree, which is safe for concurrent
+ * modification. Story callbacks are synchronized, since JBehave may cancel a timed out Story from a different thread.
  *
  * @author Vadzim Hushchanskou
  */
@@ -72,13 +82,9 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	public static final String PARENT = "PARENT";
 	public static final String START_REQUEST = "START_REQUEST";
 	public static final String FINISH_REQUEST = "FINISH_REQUEST";
+	public static final String CHILD_STATUSES = "CHILD_STATUSES";
 
-	private static final String CODE_REFERENCE_DELIMITER = "/";
-	private static final String CODE_REFERENCE_ITEM_TYPE_DELIMITER = ":";
-	private static final String CODE_REFERENCE_ITEM_START = "[";
-	private static final String CODE_REFERENCE_ITEM_END = "]";
-	private static final String EXAMPLE_VALUE_PATTERN = "<%s>";
-	private static final Pattern EXAMPLE_VALUE_MATCH = Pattern.compile("<([^>]*)>");
+	private static final String CODE_REFERENCE = "CODE_REFERENCE";
 	private static final String EXAMPLE = "EXAMPLE";
 	private static final String LIFECYCLE = "LIFECYCLE";
 	private static final String NO_NAME = "No name";
@@ -87,19 +93,136 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	private static final String BEFORE_STORY = "BeforeStory";
 	private static final String AFTER_STORY = "AfterStory";
 	private static final String PARAMETERS_PATTERN = "Parameters:\n\n%s";
+	private static final int STEP_TEMPLATE_CACHE_SIZE = 1024;
+	private static final int META_ATTRIBUTES_CACHE_SIZE = 1024;
+	private static final String STACK_TRACE_WITH_HASH = "%s\nStack trace hash: %s";
+	private static final String STACK_TRACE_REFERENCE = "%s\nThe same stack trace [hash: %s] was reported first for item: %s";
+	private static final String UNKNOWN_ITEM = "unknown";
+	private static final String CAUSE_DELIMITER = "\nCaused by: ";
+	private static final String EXCLUDED_FILTER_ATTRIBUTE = "excluded.filter";
+	private static final String EXCLUDED_ROWS_ATTRIBUTE = "excluded.rows";
+	private static final String EXCLUDED_STEPS_ATTRIBUTE = "excluded.steps";
+	private static final String NOT_PERFORMED_MESSAGE = "Step execution was skipped by JBehave, see previous steps for errors.";
+	private static final String NOT_PERFORMED_STEPS_NAME = "Not performed steps: %d";
+	private static final String NOT_PERFORMED_STEPS_MESSAGE = "%d steps were skipped by JBehave, see previous steps for errors:\n%s";
+	private static final String CHILD_STATUS_ATTRIBUTE_PREFIX = "children.";
+	private static final String EXCLUDED_DESCRIPTION_PATTERN = "Scenario was excluded by filter: `%s`\n\nExample rows: %d, steps: %d";
+
+	private static final BoundedCache<String, StepTemplate> STEP_TEMPLATES = new BoundedCache<>(STEP_TEMPLATE_CACHE_SIZE);
+	private static final BoundedCache<List<String>, List<Map.Entry<String, String>>> META_ATTRIBUTES =
+			new BoundedCache<>(META_ATTRIBUTES_CACHE_SIZE);
 
-	private final Deque<Entity<?>> structure = new LinkedList<>();
+	/**
+	 * How steps, which were not performed by JBehave after a failed step, are reported.
+	 */
+	public enum NotPerformedReporting {
+		/**
+		 * Each step is reported as a separate SKIPPED item
+		 */
+		STEPS,
+		/**
+		 * Consecutive steps are reported as a single SKIPPED item with a log which lists them
+		 */
+		ITEM,
+		/**
+		 * Consecutive steps are reported as a single log of the failed step's parent item
+		 */
+		LOG
+	}
+
+	/**
+	 * When Test Items of a Scenario are sent to Report Portal.
+	 */
+	public enum ScenarioReporting {
+		/**
+		 * Each item is started and finished as soon as JBehave reports the corresponding event
+		 */
+		IMMEDIATE,
+		/**
+		 * Items are collected in memory with their original timestamps and sent at once when the Scenario is finished
+		 */
+		DEFERRED,
+		/**
+		 * Items are collected in memory and sent when the Scenario is finished. Only Scenario (or Example) items are sent for passed
+		 * Scenarios, all nested items and their logs are sent only if the Scenario did not pass.
+		 */
+		FAILURE_DETAIL
+	}
+
+	/**
+	 * How Test Case IDs of items are generated.
+	 */
+	public enum TestCaseIdStrategy {
+		/**
+		 * A code reference of the item followed by its parameter values, e.g. 'story/[SCENARIO:name]/[STEP:name][value1,value2]'
+		 */
+		CODE_REF,
+		/**
+		 * A 16 characters hexadecimal stable 64-bit hash of the code reference and parameter values
+		 *
+		 * @see TestCaseIdHash
+		 */
+		HASH
+	}
+
+	private final LinkedList<Entity<?>> structure = new LinkedList<>();
 	private final Deque<TestItemTree.TestItemLeaf> stepStack = new LinkedList<>();
 	private final Supplier<Launch> launch;
 	private final TestItemTree itemTree;
+	private final JBehaveParameters parameters;
+	private final StackTraceFormatter stackTraceFormatter;
 
+	private volatile Instant eventTime;
+	private volatile StackTraceRegistry stackTraces = new StackTraceRegistry();
 	private volatile ItemType currentLifecycleTopItemType;
 	private volatile TestItemTree.TestItemLeaf lastStep;
 	private ItemType currentLifecycleItemType;
+	private TestItemTree.TestItemLeaf failedStepParent;
+	private String deferredStep;
+	private Instant deferredStepTime;
+	private final List<String> notPerformedSteps = new ArrayList<>();
+	private TestItemTree.TestItemLeaf notPerformedParent;
+	private ScenarioBuffer scenarioBuffer;
+	private final Set<Maybe<String>> bufferedItems = Collections.newSetFromMap(new IdentityHashMap<>());
+	private ExampleRow exampleRow;
 
 	public ReportPortalStoryReporter(final Supplier<Launch> launchSupplier, TestItemTree testItemTree) {
+		this(launchSupplier, testItemTree, new JBehaveParameters());
+	}
+
+	public ReportPortalStoryReporter(final Supplier<Launch> launchSupplier, TestItemTree testItemTree,
+			JBehaveParameters agentParameters) {
 		launch = launchSupplier;
 		itemTree = testItemTree;
+		parameters = agentParameters;
+		stackTraceFormatter = new StackTraceFormatter(
+				parameters.getStackTraceFilter(),
+				parameters.getStackTraceMaxFrames(),
+				parameters.getStackTraceMaxBytes()
+		);
+	}
+
+	/**
+	 * @return JBehave agent parameters which are used by the reporter
+	 */
+	@Nonnull
+	protected JBehaveParameters getParameters() {
+		return parameters;
+	}
+
+	/**
+	 * Sets a registry of stack traces reported within the Launch, which is shared by reporters of all Stories. Otherwise stack traces
+	 * are deduplicated within the Story only.
+	 *
+	 * @param registry the Launch stack trace registry
+	 */
+	void setStackTraceRegistry(@Nonnull final StackTraceRegistry registry) {
+		stackTraces = registry;
+	}
+
+	@Nonnull
+	private Instant currentTime() {
+		return ofNullable(eventTime).orElseGet(Instant::now);
 	}
 
 	/**
@@ -118,33 +241,40 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	 * @param parentCodeRef a basis code reference or null if it's a root item
 	 * @param key           an item leaf key
 	 * @param type          an item type
-	 * @return a code reference string to identify every element of a story
+	 * @return a code reference to identify every element of a story
 	 */
-	private String getCodeRef(@Nullable final String parentCodeRef, @Nonnull final TestItemTree.ItemTreeKey key, @Nonnull ItemType type) {
-		StringBuilder sb = new StringBuilder();
-		if (isBlank(parentCodeRef)) {
-			sb.append(key.getName());
-		} else {
-			String typeName;
-			switch (type) {
-				case SUITE:
-					typeName = EXAMPLE;
-					break;
-				case TEST:
-					typeName = LIFECYCLE;
-					break;
-				default:
-					typeName = type.name();
-			}
-			sb.append(parentCodeRef)
-					.append(CODE_REFERENCE_DELIMITER)
-					.append(CODE_REFERENCE_ITEM_START)
-					.append(typeName)
-					.append(CODE_REFERENCE_ITEM_TYPE_DELIMITER)
-					.append(key.getName().replace("\n", "").replace("\r", ""))
-					.append(CODE_REFERENCE_ITEM_END);
+	@Nonnull
+	private static CodeReference getCodeRef(@Nullable final CodeReference parentCodeRef, @Nonnull final TestItemTree.ItemTreeKey key,
+			@Nonnull ItemType type) {
+		return getCodeRef(parentCodeRef, key.getName(), type);
+	}
+
+	/**
+	 * Generates code references (path through a story to a step) for JBehave stories.
+	 *
+	 * @param parentCodeRef a basis code reference or null if it's a root item
+	 * @param name          an item name
+	 * @param type          an item type
+	 * @return a code reference to identify every element of a story
+	 */
+	@Nonnull
+	private static CodeReference getCodeRef(@Nullable final CodeReference parentCodeRef, @Nonnull final String name,
+			@Nonnull ItemType type) {
+		if (parentCodeRef == null || parentCodeRef.length() == 0) {
+			return CodeReference.of(name);
+		}
+		String typeName;
+		switch (type) {
+			case SUITE:
+				typeName = EXAMPLE;
+				break;
+			case TEST:
+				typeName = LIFECYCLE;
+				break;
+			default:
+				typeName = type.name();
 		}
-		return sb.toString();
+		return parentCodeRef.child(typeName, name);
 	}
 
 	/**
@@ -158,21 +288,40 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	}
 
 	/**
-	 * Converts a JBehave {@link Meta} object into a {@link Set} of {@link ItemAttributesRQ} ready to use in a request to Report Portal
+	 * Converts a JBehave {@link Meta} object into a {@link Set} of {@link ItemAttributesRQ} ready to use in a request to Report Portal.
+	 * Attribute keys and values are cached by Meta content, since the same Meta blocks are usually repeated across many Stories and
+	 * Scenarios, but attribute objects are created for each call.
 	 *
 	 * @param meta JBehave's meta object
-	 * @return a set of attributes
+	 * @return a new set of attributes
 	 */
 	@Nonnull
 	protected Set<ItemAttributesRQ> getAttributes(@Nonnull final Meta meta) {
-		Set<ItemAttributesRQ> items = new HashSet<>();
-		meta.getPropertyNames().forEach(name -> {
-			String value = meta.getProperty(name);
-			items.add(isBlank(value) ? new ItemAttributesRQ(name) : new ItemAttributesRQ(name, value));
+		if (meta.isEmpty()) {
+			return new HashSet<>();
+		}
+		Set<String> names = meta.getPropertyNames();
+		List<String> key = new ArrayList<>(names.size() * 2);
+		names.forEach(name -> {
+			key.add(name);
+			key.add(meta.getProperty(name));
 		});
+		List<Map.Entry<String, String>> pairs = META_ATTRIBUTES.computeIfAbsent(key, ReportPortalStoryReporter::toAttributePairs);
+		Set<ItemAttributesRQ> items = new HashSet<>();
+		pairs.forEach(p -> items.add(p.getValue() == null ? new ItemAttributesRQ(p.getKey()) : new ItemAttributesRQ(p.getKey(), p.getValue())));
 		return items;
 	}
 
+	@Nonnull
+	private static List<Map.Entry<String, String>> toAttributePairs(@Nonnull final List<String> meta) {
+		List<Map.Entry<String, String>> pairs = new ArrayList<>(meta.size() / 2);
+		for (int i = 0; i < meta.size(); i += 2) {
+			String value = meta.get(i + 1);
+			pairs.add(new AbstractMap.SimpleImmutableEntry<>(meta.get(i), isBlank(value) ? null : value));
+		}
+		return Collections.unmodifiableList(pairs);
+	}
+
 	/**
 	 * Retrieves story metas and converts it into a {@link Set} of {@link ItemAttributesRQ} ready to use in a request to Report Portal
 	 *
@@ -197,7 +346,7 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 		StartTestItemRQ rq = new StartTestItemRQ();
 		rq.setName(getStoryName(story));
 		rq.setCodeRef(codeRef);
-		rq.setStartTime(ofNullable(startTime).orElseGet(() -> Instant.now().truncatedTo(ChronoUnit.MICROS)));
+		rq.setStartTime(ofNullable(startTime).orElseGet(() -> currentTime().truncatedTo(ChronoUnit.MICROS)));
 		rq.setType(ItemType.STORY.name());
 		rq.setAttributes(getAttributes(story));
 		rq.setDescription(story.getDescription().asString());
@@ -239,12 +388,38 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 		StartTestItemRQ rq = new StartTestItemRQ();
 		rq.setName(getScenarioName(scenario));
 		rq.setCodeRef(codeRef);
-		rq.setStartTime(ofNullable(startTime).orElseGet(() -> Instant.now().truncatedTo(ChronoUnit.MICROS)));
+		rq.setStartTime(ofNullable(startTime).orElseGet(() -> currentTime().truncatedTo(ChronoUnit.MICROS)));
 		rq.setType(ItemType.SCENARIO.name());
 		rq.setAttributes(getAttributes(scenario));
 		return rq;
 	}
 
+	/**
+	 * Extension point to customize a request of a Scenario which was excluded by a meta filter and is reported as a single item.
+	 *
+	 * @param scenario  JBehave scenario object
+	 * @param filter    the filter expression which excluded the scenario
+	 * @param codeRef   A scenario code reference
+	 * @param startTime a scenario start time which will be passed to RP
+	 * @return Request to ReportPortal
+	 */
+	@Nonnull
+	protected StartTestItemRQ buildExcludedScenarioRq(@Nonnull Scenario scenario, @Nullable String filter, @Nonnull String codeRef,
+			@Nullable final Instant startTime) {
+		StartTestItemRQ rq = buildStartScenarioRq(scenario, codeRef, startTime);
+		int rows = scenario.hasExamplesTable() ? scenario.getExamplesTable().getRowCount() : 0;
+		int steps = scenario.getSteps().size();
+		Set<ItemAttributesRQ> attributes = new HashSet<>(ofNullable(rq.getAttributes()).orElse(Collections.emptySet()));
+		attributes.add(isBlank(filter) ?
+				new ItemAttributesRQ(EXCLUDED_FILTER_ATTRIBUTE) :
+				new ItemAttributesRQ(EXCLUDED_FILTER_ATTRIBUTE, filter));
+		attributes.add(new ItemAttributesRQ(EXCLUDED_ROWS_ATTRIBUTE, String.valueOf(rows)));
+		attributes.add(new ItemAttributesRQ(EXCLUDED_STEPS_ATTRIBUTE, String.valueOf(steps)));
+		rq.setAttributes(attributes);
+		rq.setDescription(String.format(EXCLUDED_DESCRIPTION_PATTERN, ofNullable(filter).orElse(""), rows, steps));
+		return rq;
+	}
+
 	/**
 	 * Converts parameters map into Report Portal's {@link ParameterResource} list ready to use in a request to Report Portal
 	 *
@@ -266,6 +441,23 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 		return param;
 	}
 
+	/**
+	 * Returns values and description of an Example row prepared for requests. They are prepared once for the row and reused by the
+	 * Example item and all its steps.
+	 *
+	 * @param example an example map
+	 * @return the prepared row
+	 */
+	@Nonnull
+	private ExampleRow getExampleRow(@Nonnull final Map<String, String> example) {
+		ExampleRow row = exampleRow;
+		if (row == null || row.example != example) {
+			row = new ExampleRow(example, parameters.getExampleValueMaxLength());
+			exampleRow = row;
+		}
+		return row;
+	}
+
 	/**
 	 * Extension point to customize test creation event/request
 	 *
@@ -281,27 +473,37 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 		StartTestItemRQ rq = new StartTestItemRQ();
 		rq.setName(getScenarioName(scenario));
 		rq.setCodeRef(codeRef);
-		rq.setStartTime(ofNullable(startTime).orElseGet(() -> Instant.now().truncatedTo(ChronoUnit.MICROS)));
+		rq.setStartTime(ofNullable(startTime).orElseGet(() -> currentTime().truncatedTo(ChronoUnit.MICROS)));
 		rq.setType(ItemType.TEST.name());
-		rq.setParameters(getStepParameters(example));
-		rq.setDescription(String.format(PARAMETERS_PATTERN, MarkdownUtils.formatDataTable(example)));
+		ExampleRow row = getExampleRow(example);
+		rq.setParameters(getStepParameters(row.values));
+		if (row.description == null) {
+			row.description = String.format(PARAMETERS_PATTERN, MarkdownUtils.formatDataTable(row.values));
+		}
+		rq.setDescription(row.description);
 		return rq;
 	}
 
+	/**
+	 * Returns a parsed step pattern. Parsed patterns are cached, since the same steps are formatted for every Example row.
+	 *
+	 * @param step a step name pattern
+	 * @return the step template
+	 */
+	@Nonnull
+	protected StepTemplate getStepTemplate(@Nonnull final String step) {
+		return STEP_TEMPLATES.computeIfAbsent(step, StepTemplate::parse);
+	}
+
 	/**
 	 * Return parameter names used in bypassed step
 	 *
 	 * @param step a step name pattern
-	 * @return a list of parameter names from the step
+	 * @return a new modifiable list of parameter names from the step
 	 */
 	@Nonnull
 	protected List<String> getUsedParameters(@Nonnull final String step) {
-		Matcher m = EXAMPLE_VALUE_MATCH.matcher(step);
-		List<String> result = new ArrayList<>();
-		while (m.find()) {
-			result.add(m.group(1));
-		}
-		return result;
+		return new ArrayList<>(getStepTemplate(step).getParameterNames());
 	}
 
 	/**
@@ -316,11 +518,7 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 		if (example == null) {
 			return step;
 		}
-		String result = step;
-		for (Map.Entry<String, String> e : example.entrySet()) {
-			result = result.replaceAll(String.format(EXAMPLE_VALUE_PATTERN, e.getKey()), Matcher.quoteReplacement(e.getValue()));
-		}
-		return result;
+		return getStepTemplate(step).format(example);
 	}
 
 	/**
@@ -329,10 +527,16 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	 * @param codeRef a test code reference
 	 * @param params  test parameters map (if any)
 	 * @return Test Case ID or null if no coderef nor params were bypassed
+	 * @see TestCaseIdStrategy
 	 */
 	@Nullable
 	protected TestCaseIdEntry getTestCaseId(@Nullable String codeRef, @Nullable final List<String> params) {
-		return TestCaseIdUtils.getTestCaseId(codeRef, params);
+		if (codeRef == null && params == null) {
+			return null;
+		}
+		return parameters.getTestCaseIdStrategy() == TestCaseIdStrategy.HASH ?
+				new TestCaseIdEntry(TestCaseIdHash.hash(codeRef, params)) :
+				TestCaseIdUtils.getTestCaseId(codeRef, params);
 	}
 
 	/**
@@ -350,16 +554,21 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 		StartTestItemRQ rq = new StartTestItemRQ();
 		rq.setName(formatExampleStep(step, params));
 		rq.setCodeRef(codeRef);
-		rq.setStartTime(ofNullable(startTime).orElseGet(() -> Instant.now().truncatedTo(ChronoUnit.MICROS)));
+		rq.setStartTime(ofNullable(startTime).orElseGet(() -> currentTime().truncatedTo(ChronoUnit.MICROS)));
 		rq.setType(ItemType.STEP.name());
-		Optional<List<ParameterResource>> usedParams = ofNullable(params).map(p -> getUsedParameters(step).stream()
+		Optional<List<String>> usedParams = ofNullable(params).map(p -> getUsedParameters(step).stream()
 				.filter(params::containsKey)
-				.map(pk -> parameterOf(pk, params.get(pk)))
 				.collect(Collectors.toList()));
-		usedParams.ifPresent(rq::setParameters);
+		usedParams.ifPresent(names -> {
+			ExampleRow row = getExampleRow(params);
+			rq.setParameters(names.stream()
+					.map(pk -> parameterOf(pk, row.values.get(pk)))
+					.collect(Collectors.toList()));
+		});
+		// Test Case IDs are calculated by original values, so rows which differ beyond the value length limit get different IDs
 		rq.setTestCaseId(ofNullable(getTestCaseId(
 				codeRef,
-				usedParams.map(p -> p.stream().map(ParameterResource::getValue).collect(Collectors.toList())).orElse(null)
+				usedParams.map(names -> names.stream().map(params::get).collect(Collectors.toList())).orElse(null)
 		)).map(TestCaseIdEntry::getId).orElse(null));
 		return rq;
 	}
@@ -378,7 +587,7 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 		StartTestItemRQ rq = new StartTestItemRQ();
 		rq.setName(name);
 		rq.setCodeRef(codeRef);
-		rq.setStartTime(ofNullable(startTime).orElseGet(() -> Instant.now().truncatedTo(ChronoUnit.MICROS)));
+		rq.setStartTime(ofNullable(startTime).orElseGet(() -> currentTime().truncatedTo(ChronoUnit.MICROS)));
 		rq.setType(ItemType.TEST.name());
 		return rq;
 	}
@@ -398,7 +607,7 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 		StartTestItemRQ rq = new StartTestItemRQ();
 		rq.setName(name);
 		rq.setCodeRef(codeRef);
-		rq.setStartTime(ofNullable(startTime).orElseGet(() -> Instant.now().truncatedTo(ChronoUnit.MICROS)));
+		rq.setStartTime(ofNullable(startTime).orElseGet(() -> currentTime().truncatedTo(ChronoUnit.MICROS)));
 		rq.setType(type.name());
 		return rq;
 	}
@@ -412,6 +621,11 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	 */
 	@Nonnull
 	protected Maybe<String> startTestItem(@Nullable final Maybe<String> parentId, @Nonnull final StartTestItemRQ rq) {
+		if (scenarioBuffer != null) {
+			Maybe<String> itemId = scenarioBuffer.startTestItem(parentId, rq);
+			startBufferedItem(itemId);
+			return itemId;
+		}
 		Launch myLaunch = launch.get();
 		return ofNullable(parentId).map(p -> myLaunch.startTestItem(p, rq)).orElseGet(() -> myLaunch.startTestItem(rq));
 	}
@@ -427,6 +641,23 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	@Nonnull
 	protected TestItemTree.TestItemLeaf createLeaf(@Nonnull final ItemType type, @Nonnull final StartTestItemRQ rq,
 			@Nullable final TestItemTree.TestItemLeaf parent) {
+		return createLeaf(type, rq, parent, null);
+	}
+
+	/**
+	 * Creates and starts a test item leaf. The leaf keeps the request code reference string and the bypassed code reference, which
+	 * shares segments with the parent one, if the request has the same code reference. Step leaves keep only the latter in compact
+	 * mode.
+	 *
+	 * @param type    the item type
+	 * @param rq      a request to Report Portal
+	 * @param parent  a parent test item leaf
+	 * @param codeRef a code reference which was used to build the request
+	 * @return a leaf of the item
+	 */
+	@Nonnull
+	protected TestItemTree.TestItemLeaf createLeaf(@Nonnull final ItemType type, @Nonnull final StartTestItemRQ rq,
+			@Nullable final TestItemTree.TestItemLeaf parent, @Nullable final CodeReference codeRef) {
 		Optional<TestItemTree.TestItemLeaf> parentOptional = ofNullable(parent);
 		Optional<Maybe<String>> parentId = parentOptional.map(TestItemTree.TestItemLeaf::getItemId);
 		Maybe<String> itemId = startTestItem(parentId.orElse(null), rq);
@@ -434,12 +665,40 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 				.orElseGet(() -> TestItemTree.createTestItemLeaf(itemId));
 		l.setType(type);
 		l.setAttribute(START_TIME, rq.getStartTime());
-		l.setAttribute(START_REQUEST, rq);
+		// Step requests and code reference strings are the most numerous, so they are optional
+		boolean full = ItemType.STEP != type || !parameters.isTreeCompactSteps();
+		if (full) {
+			l.setAttribute(START_REQUEST, rq);
+		}
 		parentOptional.ifPresent(p -> l.setAttribute(PARENT, p));
-		ofNullable(rq.getCodeRef()).ifPresent(r -> l.setAttribute(CODE_REF, r));
+		ofNullable(rq.getCodeRef()).ifPresent(r -> {
+			if (full) {
+				l.setAttribute(CODE_REF, r);
+			}
+			l.setAttribute(CODE_REFERENCE, codeRef != null && codeRef.contentEquals(r) ? codeRef : CodeReference.of(r));
+		});
 		return l;
 	}
 
+	/**
+	 * Returns a code reference of a Test Item Tree leaf as segments to build child code references on.
+	 *
+	 * @param leaf a test item leaf
+	 * @return the code reference or null if the leaf has no code reference
+	 */
+	@Nullable
+	private static CodeReference getCodeReference(@Nullable final TestItemTree.TestItemLeaf leaf) {
+		if (leaf == null) {
+			return null;
+		}
+		CodeReference codeRef = leaf.getAttribute(CODE_REFERENCE);
+		if (codeRef != null) {
+			return codeRef;
+		}
+		// Summaries of pruned Stories and leaves created outside the reporter have the string only
+		return ofNullable(leaf.<String>getAttribute(CODE_REF)).map(CodeReference::of).orElse(null);
+	}
+
 	/**
 	 * Retrieves a test item date from bypassed tree leaf and compares it with the current date. Returns current date if it newer than
 	 * bypassed (parent) date or bypassed date in other case.
@@ -449,8 +708,8 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	 */
 	@Nonnull
 	protected Instant getItemDate(@Nullable final TestItemTree.TestItemLeaf parent) {
-		final Instant previousDate = ofNullable(parent).map(p -> p.<Instant>getAttribute(START_TIME)).orElseGet(Instant::now);
-		Instant currentDate = Instant.now().truncatedTo(ChronoUnit.MICROS);
+		final Instant previousDate = ofNullable(parent).map(p -> p.<Instant>getAttribute(START_TIME)).orElseGet(this::currentTime);
+		Instant currentDate = currentTime().truncatedTo(ChronoUnit.MICROS);
 		Instant itemDate;
 		if (previousDate.compareTo(currentDate) <= 0) {
 			itemDate = currentDate;
@@ -461,153 +720,207 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	}
 
 	/**
-	 * Returns current test item leaf in Test Tree. Creates Test Item Tree branches and leaves if no such items found.
+	 * Returns a Test Item Tree key of a structure entity. The key is calculated once and cached inside the entity.
 	 *
-	 * @return a leaf of an item inside ItemTree or null if not found
+	 * @param entity a structure entity
+	 * @return the entity key
 	 */
 	@SuppressWarnings("unchecked")
-	@Nullable
-	protected TestItemTree.TestItemLeaf retrieveLeaf() {
-		final List<Pair<TestItemTree.ItemTreeKey, TestItemTree.TestItemLeaf>> leafChain = new ArrayList<>();
-		Entity<?> parentEntity = null;
-		for (Entity<?> entity : structure) {
-			final ItemType itemType = entity.type();
-			final Optional<Pair<TestItemTree.ItemTreeKey, TestItemTree.TestItemLeaf>> parent = leafChain.isEmpty() ?
-					Optional.empty() :
-					Optional.of(leafChain.get(leafChain.size() - 1));
-			final TestItemTree.TestItemLeaf parentLeaf = parent.map(Pair::getValue).orElse(null);
-			final Map<TestItemTree.ItemTreeKey, TestItemTree.TestItemLeaf> children = parent.map(p -> p.getValue().getChildItems())
-					.orElseGet(itemTree::getTestItems);
-			final String parentCodeRef = parent.map(p -> (String) p.getValue().getAttribute(CODE_REF)).orElse(null);
-			Instant itemDate = getItemDate(parent.map(Pair::getValue).orElse(null));
-			switch (itemType) {
+	@Nonnull
+	private TestItemTree.ItemTreeKey getKey(@Nonnull final Entity<?> entity) {
+		if (entity.key == null) {
+			switch (entity.type()) {
 				case STORY:
-					Story story = (Story) entity.get();
-					TestItemTree.ItemTreeKey storyKey = ItemTreeUtils.createKey(story);
-					leafChain.add(ImmutablePair.of(
-							storyKey, children.computeIfAbsent(
-									storyKey, k -> createLeaf(
-											ItemType.STORY,
-											buildStartStoryRq(story, getCodeRef(parentCodeRef, k, ItemType.STORY), itemDate),
-											parentLeaf
-									)
-							)
-					));
+					entity.key = ItemTreeUtils.createKey((Story) entity.get());
 					break;
 				case SCENARIO:
-					Scenario scenario = (Scenario) entity.get();
-					if (scenario.hasExamplesTable() && !scenario.getExamplesTable().getRows().isEmpty()) {
-						// Each Example has its own scenario node, no need to wrap them into suite once again
-						break;
-					}
-					TestItemTree.ItemTreeKey scenarioKey = ItemTreeUtils.createKey(getScenarioName(scenario));
-					leafChain.add(ImmutablePair.of(
-							scenarioKey, children.computeIfAbsent(
-									scenarioKey, k -> createLeaf(
-											ItemType.SCENARIO,
-											buildStartScenarioRq(scenario, getCodeRef(parentCodeRef, k, ItemType.SCENARIO), itemDate),
-											parentLeaf
-									)
-							)
-					));
+					entity.key = ItemTreeUtils.createKey(getScenarioName((Scenario) entity.get()));
 					break;
 				case SUITE: // type SUITE == an Example
-					if (parentEntity == null) {
-						LOGGER.error("Unable to locate Scenario item for Example, this is not something which is supposed to happen,"
-								+ " skipping reporting");
-						break;
-					}
-					Scenario parentScenario = (Scenario) parentEntity.get();
-					Map<String, String> example = (Map<String, String>) entity.get();
-					TestItemTree.ItemTreeKey parentScenarioKey = ItemTreeUtils.createKey(getScenarioName(parentScenario));
-					TestItemTree.ItemTreeKey exampleKey = ItemTreeUtils.createKey(example);
-					leafChain.add(ImmutablePair.of(
-							exampleKey, children.computeIfAbsent(
-									exampleKey, k -> {
-										String parentScenarioCodeRef = getCodeRef(parentCodeRef, parentScenarioKey, ItemType.SCENARIO);
-										TestItemTree.TestItemLeaf leaf = createLeaf(
-												ItemType.SUITE, buildStartExampleRq(
-														parentScenario,
-														example,
-														getCodeRef(parentScenarioCodeRef, k, ItemType.SUITE),
-														itemDate
-												), parentLeaf
-										);
-										leaf.setAttribute(PARAMETERS, example);
-										return leaf;
-									}
-							)
-					));
-					break;
-				case TEST: // type TEST == a lifecycle SUITE
-					String lifecycleSuiteName = (String) entity.get();
-					TestItemTree.ItemTreeKey lifecycleSuiteKey = ItemTreeUtils.createKey(lifecycleSuiteName);
-					leafChain.add(ImmutablePair.of(
-							lifecycleSuiteKey, children.computeIfAbsent(
-									lifecycleSuiteKey, k -> createLeaf(
-											itemType,
-											buildLifecycleSuiteStartRq(
-													lifecycleSuiteName,
-													getCodeRef(parentCodeRef, k, ItemType.TEST),
-													itemDate
-											),
-											parentLeaf
-									)
-							)
-					));
+					entity.key = ItemTreeUtils.createKey((Map<String, String>) entity.get());
 					break;
+				default:
+					entity.key = ItemTreeUtils.createKey((String) entity.get());
 			}
-			parentEntity = entity;
 		}
-		return leafChain.isEmpty() ? null : leafChain.get(leafChain.size() - 1).getValue();
+		return entity.key;
 	}
 
 	/**
-	 * Returns current test item leaf in Test Tree.
+	 * Checks if the entity is a Scenario with Examples. Each Example has its own scenario node, so such Scenarios are not reported.
 	 *
-	 * @return a leaf of an item inside ItemTree or null if not found
+	 * @param entity a structure entity
+	 * @return true if the entity should not have its own leaf in the Test Item Tree
+	 */
+	private static boolean isExamplesScenario(@Nonnull final Entity<?> entity) {
+		if (ItemType.SCENARIO != entity.type()) {
+			return false;
+		}
+		if (entity.examples == null) {
+			Scenario scenario = (Scenario) entity.get();
+			entity.examples = scenario.hasExamplesTable() && !scenario.getExamplesTable().getRows().isEmpty();
+		}
+		return entity.examples;
+	}
+
+	@Nonnull
+	private Map<TestItemTree.ItemTreeKey, TestItemTree.TestItemLeaf> getChildren(@Nullable final TestItemTree.TestItemLeaf parent) {
+		return parent == null ? itemTree.getTestItems() : parent.getChildItems();
+	}
+
+	/**
+	 * Creates a leaf for the entity or returns already existing one.
+	 *
+	 * @param entity       a structure entity
+	 * @param parentEntity the previous entity in the structure
+	 * @param parentLeaf   a parent test item leaf
+	 * @return a leaf of the entity or null if it's impossible to create one
 	 */
 	@SuppressWarnings("unchecked")
 	@Nullable
-	protected TestItemTree.TestItemLeaf getLeaf() {
-		final List<Pair<TestItemTree.ItemTreeKey, TestItemTree.TestItemLeaf>> leafChain = new ArrayList<>();
-		for (Entity<?> entity : structure) {
-			final ItemType itemType = entity.type();
-			final Pair<TestItemTree.ItemTreeKey, TestItemTree.TestItemLeaf> parent = leafChain.isEmpty() ?
-					null :
-					leafChain.get(leafChain.size() - 1);
-			if (parent != null) {
-				if (parent.getValue() == null) {
+	private TestItemTree.TestItemLeaf createChildLeaf(@Nonnull final Entity<?> entity, @Nullable final Entity<?> parentEntity,
+			@Nullable final TestItemTree.TestItemLeaf parentLeaf) {
+		final Map<TestItemTree.ItemTreeKey, TestItemTree.TestItemLeaf> children = getChildren(parentLeaf);
+		final CodeReference parentCodeRef = getCodeReference(parentLeaf);
+		final TestItemTree.ItemTreeKey key = getKey(entity);
+		switch (entity.type()) {
+			case STORY:
+				Story story = (Story) entity.get();
+				return children.computeIfAbsent(
+						key, k -> {
+							CodeReference codeRef = getCodeRef(parentCodeRef, k, ItemType.STORY);
+							return createLeaf(
+									ItemType.STORY,
+									buildStartStoryRq(story, codeRef.toString(), getItemDate(parentLeaf)),
+									parentLeaf,
+									codeRef
+							);
+						}
+				);
+			case SCENARIO:
+				Scenario scenario = (Scenario) entity.get();
+				return children.computeIfAbsent(
+						key, k -> {
+							CodeReference codeRef = getCodeRef(parentCodeRef, k, ItemType.SCENARIO);
+							return createLeaf(
+									ItemType.SCENARIO,
+									buildStartScenarioRq(scenario, codeRef.toString(), getItemDate(parentLeaf)),
+									parentLeaf,
+									codeRef
+							);
+						}
+				);
+			case SUITE: // type SUITE == an Example
+				if (parentEntity == null) {
+					LOGGER.error("Unable to locate Scenario item for Example, this is not something which is supposed to happen,"
+							+ " skipping reporting");
 					return null;
 				}
+				Scenario parentScenario = (Scenario) parentEntity.get();
+				Map<String, String> example = (Map<String, String>) entity.get();
+				TestItemTree.ItemTreeKey parentScenarioKey = getKey(parentEntity);
+				return children.computeIfAbsent(
+						key, k -> {
+							// Example keys are digests, code references keep human-readable parameters
+							CodeReference codeRef = getCodeRef(
+									getCodeRef(parentCodeRef, parentScenarioKey, ItemType.SCENARIO),
+									JBehaveUtils.formatExampleKey(example),
+									ItemType.SUITE
+							);
+							TestItemTree.TestItemLeaf leaf = createLeaf(
+									ItemType.SUITE,
+									buildStartExampleRq(parentScenario, example, codeRef.toString(), getItemDate(parentLeaf)),
+									parentLeaf,
+									codeRef
+							);
+							leaf.setAttribute(PARAMETERS, example);
+							return leaf;
+						}
+				);
+			case TEST: // type TEST == a lifecycle SUITE
+				String lifecycleSuiteName = (String) entity.get();
+				return children.computeIfAbsent(
+						key, k -> {
+							CodeReference codeRef = getCodeRef(parentCodeRef, k, ItemType.TEST);
+							return createLeaf(
+									ItemType.TEST,
+									buildLifecycleSuiteStartRq(lifecycleSuiteName, codeRef.toString(), getItemDate(parentLeaf)),
+									parentLeaf,
+									codeRef
+							);
+						}
+				);
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Resolves current test item leaf in Test Tree. Leaves are cached inside {@link Entity} objects, so only entities which were added
+	 * to the structure after the last resolution are processed.
+	 *
+	 * @param create create Test Item Tree branches and leaves if no such items found
+	 * @return a leaf of an item inside ItemTree or null if not found
+	 */
+	@Nullable
+	private TestItemTree.TestItemLeaf resolveLeaf(boolean create) {
+		Entity<?> anchor = null;
+		int unresolved = 0;
+		Iterator<Entity<?>> reverse = structure.descendingIterator();
+		while (reverse.hasNext()) {
+			Entity<?> entity = reverse.next();
+			if (entity.leaf != null) {
+				anchor = entity;
+				break;
 			}
-			final Map<TestItemTree.ItemTreeKey, TestItemTree.TestItemLeaf> children = ofNullable(parent).map(p -> p.getValue()
-					.getChildItems()).orElseGet(itemTree::getTestItems);
-			switch (itemType) {
-				case STORY:
-					TestItemTree.ItemTreeKey storyKey = ItemTreeUtils.createKey((Story) entity.get());
-					leafChain.add(ImmutablePair.of(storyKey, children.get(storyKey)));
-					break;
-				case SCENARIO:
-					Scenario scenario = (Scenario) entity.get();
-					if (scenario.hasExamplesTable() && !scenario.getExamplesTable().getRows().isEmpty()) {
-						// Each Example has its own scenario node, no need to wrap them into suite once again
-						continue;
+			unresolved++;
+		}
+		TestItemTree.TestItemLeaf parentLeaf = anchor == null ? null : anchor.leaf;
+		if (unresolved == 0) {
+			return parentLeaf;
+		}
+		Entity<?> parentEntity = anchor;
+		Iterator<Entity<?>> forward = structure.listIterator(structure.size() - unresolved);
+		while (forward.hasNext()) {
+			Entity<?> entity = forward.next();
+			if (!isExamplesScenario(entity)) {
+				TestItemTree.TestItemLeaf leaf;
+				if (create) {
+					leaf = createChildLeaf(entity, parentEntity, parentLeaf);
+				} else {
+					leaf = getChildren(parentLeaf).get(getKey(entity));
+					if (leaf == null) {
+						return null;
 					}
-					TestItemTree.ItemTreeKey scenarioKey = ItemTreeUtils.createKey(getScenarioName(scenario));
-					leafChain.add(ImmutablePair.of(scenarioKey, children.get(scenarioKey)));
-					break;
-				case SUITE: // type SUITE == an Example
-					TestItemTree.ItemTreeKey exampleKey = ItemTreeUtils.createKey((Map<String, String>) entity.get());
-					leafChain.add(ImmutablePair.of(exampleKey, children.get(exampleKey)));
-					break;
-				default:
-					TestItemTree.ItemTreeKey stepKey = ItemTreeUtils.createKey((String) entity.get());
-					leafChain.add(ImmutablePair.of(stepKey, children.get(stepKey)));
-					break;
+				}
+				if (leaf != null) {
+					entity.leaf = leaf;
+					parentLeaf = leaf;
+				}
 			}
+			parentEntity = entity;
 		}
-		return leafChain.isEmpty() ? null : leafChain.get(leafChain.size() - 1).getValue();
+		return parentLeaf;
+	}
+
+	/**
+	 * Returns current test item leaf in Test Tree. Creates Test Item Tree branches and leaves if no such items found.
+	 *
+	 * @return a leaf of an item inside ItemTree or null if not found
+	 */
+	@Nullable
+	protected TestItemTree.TestItemLeaf retrieveLeaf() {
+		return resolveLeaf(true);
+	}
+
+	/**
+	 * Returns current test item leaf in Test Tree.
+	 *
+	 * @return a leaf of an item inside ItemTree or null if not found
+	 */
+	@Nullable
+	protected TestItemTree.TestItemLeaf getLeaf() {
+		return resolveLeaf(false);
 	}
 
 	/**
@@ -619,13 +932,12 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	 */
 	protected TestItemTree.TestItemLeaf startStep(@Nonnull final String name, @Nonnull final TestItemTree.TestItemLeaf parent) {
 		TestItemTree.ItemTreeKey key = ItemTreeUtils.createKey(name);
+		CodeReference codeRef = getCodeRef(getCodeReference(parent), key, ItemType.STEP);
 		TestItemTree.TestItemLeaf leaf = createLeaf(
-				ItemType.STEP, buildStartStepRq(
-						name,
-						getCodeRef(parent.getAttribute(CODE_REF), key, ItemType.STEP),
-						parent.getAttribute(PARAMETERS),
-						getItemDate(parent)
-				), parent
+				ItemType.STEP,
+				buildStartStepRq(name, codeRef.toString(), parent.getAttribute(PARAMETERS), getItemDate(parent)),
+				parent,
+				codeRef
 		);
 		parent.getChildItems().put(key, leaf);
 		return leaf;
@@ -643,11 +955,12 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	protected TestItemTree.TestItemLeaf startLifecycleMethod(@Nonnull final String name, @Nonnull final ItemType itemType,
 			@Nonnull final TestItemTree.TestItemLeaf parent) {
 		TestItemTree.ItemTreeKey key = ItemTreeUtils.createKey(name);
-		String codeRef = getCodeRef(parent.getAttribute(CODE_REF), key, itemType);
+		CodeReference codeRef = getCodeRef(getCodeReference(parent), key, itemType);
 		TestItemTree.TestItemLeaf leaf = createLeaf(
 				itemType,
-				buildLifecycleMethodStartRq(itemType, name, codeRef, getItemDate(parent)),
-				parent
+				buildLifecycleMethodStartRq(itemType, name, codeRef.toString(), getItemDate(parent)),
+				parent,
+				codeRef
 		);
 		parent.getChildItems().put(key, leaf);
 		return leaf;
@@ -666,7 +979,7 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	protected FinishTestItemRQ buildFinishTestItemRequest(@Nonnull final Maybe<String> id, @Nullable final ItemStatus status,
 			@Nullable Issue issue) {
 		FinishTestItemRQ rq = new FinishTestItemRQ();
-		rq.setEndTime(Instant.now());
+		rq.setEndTime(currentTime());
 		rq.setStatus(ofNullable(status).map(Enum::name).orElse(null));
 		rq.setIssue(issue);
 		return rq;
@@ -681,13 +994,55 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	protected void finishItem(@Nullable final TestItemTree.TestItemLeaf item, @Nullable final ItemStatus status) {
 		ofNullable(item).ifPresent(i -> {
 			FinishTestItemRQ rq = buildFinishTestItemRequest(i.getItemId(), status, null);
-			Maybe<OperationCompletionRS> response = launch.get().finishTestItem(i.getItemId(), rq);
-			i.setStatus(status);
+			if (parameters.isChildStatusAttributes()) {
+				ofNullable(i.<StatusAggregate>getAttribute(CHILD_STATUSES)).ifPresent(a -> rq.setAttributes(getAttributes(a)));
+			}
+			Maybe<OperationCompletionRS> response = finishTestItem(i.getItemId(), rq);
+			setStatus(i, status);
 			i.setFinishResponse(response);
 			i.setAttribute(FINISH_REQUEST, rq);
 		});
 	}
 
+	/**
+	 * Converts numbers of child items by their statuses into a {@link Set} of {@link ItemAttributesRQ} ready to use in a request to
+	 * Report Portal
+	 *
+	 * @param childStatuses an aggregate of child item statuses
+	 * @return a set of attributes
+	 */
+	@Nonnull
+	protected Set<ItemAttributesRQ> getAttributes(@Nonnull final StatusAggregate childStatuses) {
+		return childStatuses.getCounts()
+				.entrySet()
+				.stream()
+				.map(e -> new ItemAttributesRQ(
+						CHILD_STATUS_ATTRIBUTE_PREFIX + e.getKey().name().toLowerCase(Locale.ROOT),
+						String.valueOf(e.getValue())
+				))
+				.collect(Collectors.toSet());
+	}
+
+	/**
+	 * Sets a status of a finished item and adds it to the status aggregate of its parent item.
+	 *
+	 * @param item   the item
+	 * @param status the item status
+	 */
+	private void setStatus(@Nonnull final TestItemTree.TestItemLeaf item, @Nullable final ItemStatus status) {
+		item.setStatus(status);
+		TestItemTree.TestItemLeaf parent = item.getAttribute(PARENT);
+		if (parent == null) {
+			return;
+		}
+		StatusAggregate childStatuses = parent.getAttribute(CHILD_STATUSES);
+		if (childStatuses == null) {
+			childStatuses = new StatusAggregate();
+			parent.setAttribute(CHILD_STATUSES, childStatuses);
+		}
+		childStatuses.add(item, status, this::evaluateStatus);
+	}
+
 	/**
 	 * Finishes the last item in the structure
 	 *
@@ -714,31 +1069,61 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	}
 
 	/**
-	 * Pulls the last item in the structure stack, evaluates it status by child element statuses and finish it
+	 * Pulls the last item in the structure stack, evaluates it status by child element statuses and finish it. Child element statuses are
+	 * taken from the running aggregate, which is updated when a child element finishes and refreshed with statuses set on child leaves
+	 * after that.
 	 */
 	protected void evaluateAndFinishLastItem() {
 		TestItemTree.TestItemLeaf item = getLeaf();
 		Entity<?> entity = structure.pollLast();
-		if (entity != null && ItemType.SCENARIO == entity.type()) {
-			Scenario scenario = (Scenario) entity.get();
-			if (scenario.hasExamplesTable() && !scenario.getExamplesTable().getRows().isEmpty()) {
-				// Each Example has its own scenario node, no need to wrap them into suite once again
-				return;
-			}
+		if (entity != null && isExamplesScenario(entity)) {
+			// Each Example has its own scenario node, no need to wrap them into suite once again
+			return;
 		}
 		ofNullable(item).ifPresent(i -> {
-			ItemStatus status = i.getStatus();
-			for (Map.Entry<TestItemTree.ItemTreeKey, TestItemTree.TestItemLeaf> entry : i.getChildItems().entrySet()) {
-				TestItemTree.TestItemLeaf value = entry.getValue();
-				if (value != null) {
-					status = evaluateStatus(status, value.getStatus());
-				}
+			StatusAggregate childStatuses = i.getAttribute(CHILD_STATUSES);
+			if (childStatuses != null) {
+				// Callbacks can change statuses of finished child leaves directly
+				childStatuses.refresh(this::evaluateStatus);
 			}
-			i.setStatus(status);
+			ItemStatus status = childStatuses == null ? i.getStatus() : evaluateStatus(i.getStatus(), childStatuses.getStatus());
 			finishItem(i, status);
 		});
 	}
 
+	/**
+	 * Replaces a finished Story leaf in the Test Item Tree with its summary, when the Story finish request is completed. The summary
+	 * keeps only the item ID, type, status and code reference, all child items, requests and other attributes are dropped.
+	 *
+	 * @param key   the Story key in its parent child items
+	 * @param story the Story leaf
+	 */
+	protected void pruneStory(@Nonnull final TestItemTree.ItemTreeKey key, @Nonnull final TestItemTree.TestItemLeaf story) {
+		Maybe<OperationCompletionRS> finish = story.getFinishResponse();
+		if (finish == null) {
+			return;
+		}
+		// the finish response is emitted on the client executor, so the item ID is not awaited there, but subscribed to
+		Maybe<Maybe<String>> itemId = story.getItemId().map(Maybe::just).onErrorReturnItem(Maybe.empty()).defaultIfEmpty(Maybe.empty());
+		//noinspection ResultOfMethodCallIgnored
+		finish.map(Maybe::just)
+				.onErrorReturnItem(Maybe.empty())
+				.defaultIfEmpty(Maybe.empty())
+				.flatMap(response -> itemId.map(id -> createSummary(story, id, response)))
+				.subscribe(summary -> getChildren(story.getAttribute(PARENT)).replace(key, story, summary));
+	}
+
+	@Nonnull
+	private static TestItemTree.TestItemLeaf createSummary(@Nonnull final TestItemTree.TestItemLeaf leaf,
+			@Nonnull final Maybe<String> itemId, @Nonnull final Maybe<OperationCompletionRS> finishResponse) {
+		TestItemTree.TestItemLeaf summary = TestItemTree.createTestItemLeaf(itemId);
+		summary.setType(leaf.getType());
+		summary.setStatus(leaf.getStatus());
+		summary.setFinishResponse(finishResponse);
+		ofNullable(leaf.getAttribute(CODE_REF)).ifPresent(r -> summary.setAttribute(CODE_REF, r));
+		return summary;
+	}
+
 	/**
 	 * Prepare a function which creates a {@link SaveLogRQ} from a {@link Throwable}
 	 *
@@ -748,24 +1133,68 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	 */
 	@Nonnull
 	protected Function<String, SaveLogRQ> getLogSupplier(@Nonnull final LogLevel level, @Nullable final String message) {
+		final Instant logTime = currentTime();
 		return itemUuid -> {
 			SaveLogRQ rq = new SaveLogRQ();
 			rq.setItemUuid(itemUuid);
 			rq.setLevel(level.name());
-			rq.setLogTime(Instant.now());
+			rq.setLogTime(logTime);
 			rq.setMessage(message);
 			return rq;
 		};
 	}
 
 	/**
-	 * Send a message to report portal about appeared failure
+	 * Converts a failure into a log message text. Stack trace frames are filtered and truncated according to agent parameters.
+	 *
+	 * @param thrown {@link Throwable} object with details of the failure
+	 * @return stack trace text
+	 */
+	@Nonnull
+	protected String formatStackTrace(@Nonnull final Throwable thrown) {
+		return stackTraceFormatter.isEnabled() ? stackTraceFormatter.format(thrown) : ExceptionUtils.getStackTrace(thrown);
+	}
+
+	/**
+	 * Send a message to report portal about appeared failure. If stack trace deduplication is on, a stack trace which was already
+	 * reported within the Launch is replaced with a reference to its first occurrence.
 	 *
 	 * @param itemId an ID of an Item to which bypassed stacktrace will be attached
 	 * @param thrown {@link Throwable} object with details of the failure
 	 */
 	protected void sendStackTraceToRP(@Nonnull Maybe<String> itemId, @Nullable final Throwable thrown) {
-		ofNullable(thrown).ifPresent(t -> ReportPortal.emitLog(itemId, getLogSupplier(LogLevel.ERROR, ExceptionUtils.getStackTrace(t))));
+		ofNullable(thrown).ifPresent(t -> {
+			if (!parameters.isStackTraceDedup()) {
+				ReportPortal.emitLog(itemId, getLogSupplier(LogLevel.ERROR, formatStackTrace(t)));
+				return;
+			}
+			String hash = StackTraceRegistry.hash(t);
+			StackTraceRegistry.Occurrence first = stackTraces.register(hash, itemId);
+			if (first == null) {
+				ReportPortal.emitLog(
+						itemId,
+						getLogSupplier(LogLevel.ERROR, String.format(STACK_TRACE_WITH_HASH, formatStackTrace(t), hash))
+				);
+				return;
+			}
+			Function<String, SaveLogRQ> logSupplier = getLogSupplier(LogLevel.ERROR, null);
+			// Exception messages are not a part of the hash, but they could differ, e.g. contain Example row values
+			String header = ExceptionUtils.getThrowableList(t)
+					.stream()
+					.map(Throwable::toString)
+					.collect(Collectors.joining(CAUSE_DELIMITER));
+			ReportPortal.emitLog(itemId, itemUuid -> {
+				SaveLogRQ rq = logSupplier.apply(itemUuid);
+				// The first item ID is taken as late as possible, since it could be not known yet when the failure happened
+				rq.setMessage(String.format(
+						STACK_TRACE_REFERENCE,
+						header,
+						first.getHash(),
+						ofNullable(first.getItemUuid()).orElse(UNKNOWN_ITEM)
+				));
+				return rq;
+			});
+		});
 	}
 
 	/**
@@ -778,12 +1207,61 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	protected void finishItem(final @Nonnull Maybe<String> id, final @Nonnull ItemStatus status, @Nullable Issue issue) {
 		FinishTestItemRQ rq = buildFinishTestItemRequest(id, status, issue);
 		//noinspection ReactiveStreamsUnusedPublisher
-		launch.get().finishTestItem(id, rq);
+		finishTestItem(id, rq);
+	}
+
+	@Nonnull
+	private Maybe<OperationCompletionRS> finishTestItem(@Nonnull final Maybe<String> id, @Nonnull final FinishTestItemRQ rq) {
+		if (scenarioBuffer == null) {
+			return launch.get().finishTestItem(id, rq);
+		}
+		finishBufferedItem(id, rq);
+		return scenarioBuffer.finishTestItem(id, rq);
+	}
+
+	/**
+	 * Does the same thread-bound initialization for a buffered Test Item which {@link Launch#startTestItem} does for a sent one, so logs
+	 * and nested steps emitted by step code are bound to the item's placeholder ID and sent along with the item.
+	 *
+	 * @param itemId a placeholder ID returned by the Scenario buffer
+	 */
+	private void startBufferedItem(@Nonnull final Maybe<String> itemId) {
+		bufferedItems.add(itemId);
+		LoggingContext.init(itemId);
+		launch.get().getStepReporter().setParent(itemId);
+	}
+
+	/**
+	 * Releases thread-bound resources initialized by {@link #startBufferedItem(Maybe)}.
+	 *
+	 * @param itemId a placeholder ID returned by the Scenario buffer
+	 * @param rq     finish request of the item
+	 */
+	private void finishBufferedItem(@Nonnull final Maybe<String> itemId, @Nonnull final FinishTestItemRQ rq) {
+		if (!bufferedItems.remove(itemId)) {
+			return;
+		}
+		StepReporter stepReporter = launch.get().getStepReporter();
+		stepReporter.finishPreviousStep(ofNullable(rq.getStatus()).map(ItemStatus::valueOf).orElse(null));
+		stepReporter.removeParent(itemId);
+		LoggingContext.dispose();
+	}
+
+	/**
+	 * Sends buffered Test Items of the current Scenario to Report Portal, if any.
+	 */
+	private void submitScenario() {
+		ScenarioBuffer buffer = scenarioBuffer;
+		if (buffer == null) {
+			return;
+		}
+		scenarioBuffer = null;
+		buffer.submit(launch.get(), ScenarioReporting.FAILURE_DETAIL == parameters.getScenarioReporting());
 	}
 
 	private void finishStep(final @Nonnull TestItemTree.TestItemLeaf step, final @Nonnull ItemStatus status, @Nullable Issue issue) {
 		finishItem(step.getItemId(), status, issue);
-		step.setStatus(status);
+		setStatus(step, status);
 	}
 
 	private void finishStep(final @Nonnull TestItemTree.TestItemLeaf step, final @Nonnull ItemStatus status) {
@@ -808,10 +1286,59 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	 */
 	@SuppressWarnings("unused")
 	protected void createNotPerformedSteps(@Nullable String step, @Nonnull TestItemTree.TestItemLeaf leaf) {
-		ReportPortal.emitLog(
-				leaf.getItemId(),
-				getLogSupplier(LogLevel.WARN, "Step execution was skipped by JBehave, see previous steps for errors.")
-		);
+		ReportPortal.emitLog(leaf.getItemId(), getLogSupplier(LogLevel.WARN, NOT_PERFORMED_MESSAGE));
+	}
+
+	/**
+	 * Extension point to customize reporting of consecutive not performed steps, which are collapsed into a single item or log
+	 *
+	 * @param steps  not performed step names
+	 * @param parent a parent test item leaf of the steps
+	 */
+	protected void createNotPerformedStepsSummary(@Nonnull List<String> steps, @Nonnull TestItemTree.TestItemLeaf parent) {
+		String message = String.format(NOT_PERFORMED_STEPS_MESSAGE, steps.size(), String.join("\n", steps));
+		if (NotPerformedReporting.LOG == parameters.getNotPerformedReporting()) {
+			ReportPortal.emitLog(parent.getItemId(), getLogSupplier(LogLevel.WARN, message));
+			return;
+		}
+		TestItemTree.TestItemLeaf leaf = startStep(String.format(NOT_PERFORMED_STEPS_NAME, steps.size()), parent);
+		ReportPortal.emitLog(leaf.getItemId(), getLogSupplier(LogLevel.WARN, message));
+		finishStep(leaf, ItemStatus.SKIPPED, Launch.NOT_ISSUE);
+	}
+
+	/**
+	 * Reports buffered not performed steps, if any.
+	 */
+	private void flushNotPerformedSteps() {
+		if (notPerformedSteps.isEmpty()) {
+			return;
+		}
+		List<String> steps = new ArrayList<>(notPerformedSteps);
+		notPerformedSteps.clear();
+		createNotPerformedStepsSummary(steps, notPerformedParent);
+		notPerformedParent = null;
+	}
+
+	/**
+	 * Starts a step which start was deferred, since JBehave reported an outcome other than "not performed" for it.
+	 */
+	private void startDeferredStep() {
+		if (deferredStep == null) {
+			return;
+		}
+		String step = deferredStep;
+		deferredStep = null;
+		flushNotPerformedSteps();
+		Instant time = eventTime;
+		eventTime = deferredStepTime;
+		try {
+			// Steps are deferred only inside the parent of a failed step
+			TestItemTree.TestItemLeaf leaf = startStep(step, failedStepParent);
+			stepStack.add(leaf);
+			lastStep = leaf;
+		} finally {
+			eventTime = time;
+		}
 	}
 
 	/**
@@ -836,6 +1363,17 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 		});
 	}
 
+	/**
+	 * Remembers which stage of BeforeStories / AfterStories steps is going to be reported. JBehave reports these steps with a
+	 * separate reporter instance, so the stage defines the lifecycle suite of all further steps without a Story.
+	 *
+	 * @param stage the stage of the steps
+	 */
+	@Override
+	public synchronized void beforeStoriesSteps(StepCollector.Stage stage) {
+		currentLifecycleTopItemType = StepCollector.Stage.AFTER == stage ? ItemType.AFTER_GROUPS : ItemType.BEFORE_GROUPS;
+	}
+
 	/**
 	 * Starts story (test suite level) in ReportPortal
 	 *
@@ -844,7 +1382,7 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	 * @see <a href="https://jbehave.org/reference/latest/given-stories.html">Given Stories</a>
 	 */
 	@Override
-	public void beforeStory(@Nonnull Story story, boolean givenStory) {
+	public synchronized void beforeStory(@Nonnull Story story, boolean givenStory) {
 		currentLifecycleItemType = ItemType.BEFORE_SUITE;
 		structure.add(new Entity<>(ItemType.STORY, story));
 	}
@@ -853,16 +1391,24 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	 * Finishes story in ReportPortal
 	 */
 	@Override
-	public void afterStory(boolean givenStory) {
+	public synchronized void afterStory(boolean givenStory) {
+		submitScenario();
 		TestItemTree.TestItemLeaf previousItem = getLeaf();
 		if (previousItem != null && previousItem.getType() == ItemType.TEST) {
 			evaluateAndFinishLastItem();
 		}
+		Entity<?> storyEntity = structure.peekLast();
+		TestItemTree.TestItemLeaf story = getLeaf();
 		evaluateAndFinishLastItem();
+		if (parameters.isTreePrune() && storyEntity != null && story != null && ItemType.STORY == storyEntity.type()) {
+			pruneStory(getKey(storyEntity), story);
+		}
 	}
 
 	@Override
-	public void storyCancelled(Story story, StoryDuration storyDuration) {
+	public synchronized void storyCancelled(Story story, StoryDuration storyDuration) {
+		flushNotPerformedSteps();
+		submitScenario();
 		finishLastItem(ItemStatus.SKIPPED);
 	}
 
@@ -872,26 +1418,38 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	 * @param scenario JBehave scenario object
 	 */
 	@Override
-	public void beforeScenario(@Nonnull Scenario scenario) {
+	public synchronized void beforeScenario(@Nonnull Scenario scenario) {
+		submitScenario();
 		TestItemTree.TestItemLeaf previousItem = getLeaf();
 		if (previousItem != null && previousItem.getType() == ItemType.TEST) {
 			evaluateAndFinishLastItem();
 		}
 		currentLifecycleItemType = ItemType.BEFORE_TEST;
-		structure.add(new Entity<>(ItemType.SCENARIO, scenario));
+		failedStepParent = null;
+		if (ScenarioReporting.IMMEDIATE != parameters.getScenarioReporting()) {
+			// Parent items are started before the buffer, so items of the Scenario are the only ones in it
+			retrieveLeaf();
+			scenarioBuffer = new ScenarioBuffer();
+		}
+		Entity<Scenario> entity = new Entity<>(ItemType.SCENARIO, scenario);
+		ofNullable(structure.peekLast()).ifPresent(parent -> entity.ordinal = parent.scenarios++);
+		structure.add(entity);
 	}
 
 	/**
 	 * Finishes scenario in ReportPortal
 	 */
 	@Override
-	public void afterScenario(Timing timing) {
+	public synchronized void afterScenario(Timing timing) {
+		deferredStep = null;
+		flushNotPerformedSteps();
 		TestItemTree.TestItemLeaf previousItem = getLeaf();
 		if (previousItem != null && previousItem.getType() == ItemType.TEST) {
 			evaluateAndFinishLastItem();
 		}
 		currentLifecycleItemType = ItemType.AFTER_SUITE;
 		evaluateAndFinishLastItem();
+		submitScenario();
 	}
 
 	/**
@@ -900,7 +1458,8 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	 * @param step Step to be reported
 	 */
 	@Override
-	public void beforeStep(@Nonnull Step step) {
+	public synchronized void beforeStep(@Nonnull Step step) {
+		startDeferredStep();
 		TestItemTree.TestItemLeaf previousItem = getLeaf();
 		if (previousItem != null && previousItem.getType() == ItemType.TEST) {
 			// Finish Before/After methods
@@ -908,13 +1467,12 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 		}
 		TestItemTree.TestItemLeaf parentItem = retrieveLeaf();
 		if (parentItem == null) {
-			// Before Stories
-			if (itemTree.getTestItems().isEmpty()) {
+			// Before / After Stories
+			if (ItemType.AFTER_GROUPS == currentLifecycleTopItemType) {
+				structure.add(new Entity<>(ItemType.TEST, AFTER_STORIES));
+			} else {
 				currentLifecycleTopItemType = ItemType.BEFORE_GROUPS;
 				structure.add(new Entity<>(ItemType.TEST, BEFORE_STORIES));
-			} else {
-				currentLifecycleTopItemType = ItemType.AFTER_GROUPS;
-				structure.add(new Entity<>(ItemType.TEST, AFTER_STORIES));
 			}
 		} else if (parentItem.getType() == ItemType.STORY) {
 			// Before Story
@@ -925,9 +1483,17 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 				return startLifecycleMethod(step.getStepAsString(), currentLifecycleTopItemType, i);
 			} else {
 				if (ItemType.TEST == i.getType()) {
+					flushNotPerformedSteps();
 					return startLifecycleMethod(step.getStepAsString(), currentLifecycleItemType, i);
 				} else {
 					currentLifecycleItemType = ItemType.BEFORE_METHOD;
+					if (NotPerformedReporting.STEPS != parameters.getNotPerformedReporting() && i == failedStepParent) {
+						// JBehave does not perform steps after a failed one, so the step is started only if it has other outcome
+						deferredStep = step.getStepAsString();
+						deferredStepTime = currentTime();
+						return null;
+					}
+					flushNotPerformedSteps();
 					return startStep(step.getStepAsString(), i);
 				}
 			}
@@ -944,19 +1510,28 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	}
 
 	@Override
-	public void example(Map<String, String> tableRow, int exampleIndex) {
+	public synchronized void example(Map<String, String> tableRow, int exampleIndex) {
+		deferredStep = null;
+		flushNotPerformedSteps();
+		failedStepParent = null;
 		TestItemTree.TestItemLeaf previousItem = getLeaf();
 		if (previousItem != null && (previousItem.getType() == ItemType.TEST || previousItem.getType() == ItemType.SUITE)) {
 			evaluateAndFinishLastItem();
 		}
-		structure.add(new Entity<>(ItemType.SUITE, tableRow)); // type SUITE is used for Examples
+		Entity<Map<String, String>> row = new Entity<>(ItemType.SUITE, tableRow); // type SUITE is used for Examples
+		// Rows are identified by their Scenario and index, so large cell values are not hashed and compared on every lookup
+		ofNullable(structure.peekLast()).filter(e -> ItemType.SCENARIO == e.type())
+				.ifPresent(scenario -> row.key = ItemTreeUtils.createKey(scenario.ordinal, exampleIndex));
+		structure.add(row);
 	}
 
 	/**
 	 * Finishes the last examples item
 	 */
 	@Override
-	public void afterExamples() {
+	public synchronized void afterExamples() {
+		deferredStep = null;
+		flushNotPerformedSteps();
 		TestItemTree.TestItemLeaf previousItem = getLeaf();
 		if (previousItem != null && previousItem.getType() == ItemType.TEST) {
 			evaluateAndFinishLastItem();
@@ -976,7 +1551,8 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	 * Finishes step in ReportPortal
 	 */
 	@Override
-	public void successful(String step) {
+	public synchronized void successful(String step) {
+		startDeferredStep();
 		currentLifecycleItemType = ItemType.AFTER_TEST;
 		ofNullable(stepStack.pollLast()).ifPresent(s -> {
 			finishStep(s, ItemStatus.PASSED);
@@ -991,8 +1567,12 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	 * @param cause a reason of a failure
 	 */
 	@Override
-	public void failed(String step, Throwable cause) {
+	public synchronized void failed(String step, Throwable cause) {
+		startDeferredStep();
 		ofNullable(stepStack.pollLast()).ifPresent(i -> {
+			if (ItemType.STEP == i.getType()) {
+				failedStepParent = i.getAttribute(PARENT);
+			}
 			sendStackTraceToRP(i.getItemId(), cause);
 			finishStep(i, ItemStatus.FAILED);
 			finishBeforeAfterSuites(i);
@@ -1005,7 +1585,8 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	 * @param step a step name
 	 */
 	@Override
-	public void ignorable(String step) {
+	public synchronized void ignorable(String step) {
+		startDeferredStep();
 		ofNullable(stepStack.pollLast()).ifPresent(i -> {
 			createIgnoredSteps(step, i);
 			finishStep(i, ItemStatus.SKIPPED);
@@ -1019,7 +1600,13 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	 * @param step a step name
 	 */
 	@Override
-	public void notPerformed(String step) {
+	public synchronized void notPerformed(String step) {
+		if (deferredStep != null) {
+			notPerformedSteps.add(deferredStep);
+			notPerformedParent = failedStepParent;
+			deferredStep = null;
+			return;
+		}
 		ofNullable(stepStack.pollLast()).ifPresent(i -> {
 			createNotPerformedSteps(step, i);
 			finishStep(i, ItemStatus.SKIPPED, Launch.NOT_ISSUE);
@@ -1028,7 +1615,8 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 	}
 
 	@Override
-	public void pending(StepCreator.PendingStep step) {
+	public synchronized void pending(StepCreator.PendingStep step) {
+		startDeferredStep();
 		ofNullable(stepStack.pollLast()).ifPresent(i -> {
 			createPendingSteps(step.stepAsString(), i);
 			finishStep(i, ItemStatus.SKIPPED);
@@ -1036,8 +1624,63 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 		});
 	}
 
+	/**
+	 * Reports a Scenario excluded by a meta filter as a single SKIPPED item with the filter and the numbers of Example rows and Steps
+	 * in its attributes and description.
+	 *
+	 * @param scenario JBehave scenario object
+	 * @param filter   the filter expression which excluded the scenario
+	 */
+	private void reportExcludedScenario(@Nonnull Scenario scenario, @Nullable String filter) {
+		Entity<?> entity = structure.pollLast();
+		if (entity == null || ItemType.SCENARIO != entity.type()) {
+			ofNullable(entity).ifPresent(structure::add);
+			LOGGER.error("Unable to locate excluded Scenario in the structure, this is not something which is supposed to happen,"
+					+ " skipping reporting");
+			return;
+		}
+		TestItemTree.TestItemLeaf parentLeaf = retrieveLeaf();
+		CodeReference parentCodeRef = getCodeReference(parentLeaf);
+		// An excluded Scenario has its own item even if it has Examples, since Examples are not reported
+		entity.examples = Boolean.FALSE;
+		entity.leaf = getChildren(parentLeaf).computeIfAbsent(
+				getKey(entity), k -> {
+					CodeReference codeRef = getCodeRef(parentCodeRef, k, ItemType.SCENARIO);
+					return createLeaf(
+							ItemType.SCENARIO,
+							buildExcludedScenarioRq(scenario, filter, codeRef.toString(), getItemDate(parentLeaf)),
+							parentLeaf,
+							codeRef
+					);
+				}
+		);
+		structure.add(entity);
+		finishLastItem(ItemStatus.SKIPPED);
+	}
+
+	/**
+	 * Reports a Scenario excluded by a meta filter as a single SKIPPED item. JBehave passes such Scenarios only to its
+	 * {@link org.jbehave.core.embedder.EmbedderMonitor}, without any other Scenario event, so the method is called by
+	 * {@link ReportPortalEmbedderMonitor}. Does nothing unless {@link JBehaveParameters#isExcludedScenarioAggregate()} is on.
+	 *
+	 * @param scenario JBehave scenario object
+	 * @param filter   the filter which excluded the scenario
+	 */
+	public synchronized void scenarioExcluded(@Nonnull Scenario scenario, @Nonnull MetaFilter filter) {
+		if (!parameters.isExcludedScenarioAggregate()) {
+			return;
+		}
+		beforeScenario(scenario);
+		scenarioExcluded(scenario, filter.asString());
+	}
+
 	@Override
-	public void scenarioExcluded(Scenario scenario, String filter) {
+	public synchronized void scenarioExcluded(Scenario scenario, String filter) {
+		if (parameters.isExcludedScenarioAggregate()) {
+			reportExcludedScenario(scenario, filter);
+			submitScenario();
+			return;
+		}
 		if (null != scenario.getExamplesTable() && scenario.getExamplesTable().getRowCount() > 0) {
 			beforeExamples(scenario.getSteps(), scenario.getExamplesTable());
 			for (int i = 0; i < scenario.getExamplesTable().getRowCount(); i++) {
@@ -1052,6 +1695,31 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 			}
 		}
 		finishLastItem(ItemStatus.SKIPPED);
+		submitScenario();
+	}
+
+	/**
+	 * Truncated values and description of an Example row, which are prepared for requests once and shared by the Example item and its
+	 * steps. Parameter resources are mutable, so they are created for each request from these values.
+	 */
+	private static class ExampleRow {
+		private final Map<String, String> example;
+		private final Map<String, String> values;
+		private String description;
+
+		private ExampleRow(@Nonnull final Map<String, String> exampleRow, int valueMaxLength) {
+			example = exampleRow;
+			if (valueMaxLength <= 0 || exampleRow.values().stream().noneMatch(v -> v != null && v.length() > valueMaxLength)) {
+				values = exampleRow;
+				return;
+			}
+			Map<String, String> truncated = new LinkedHashMap<>();
+			exampleRow.forEach((k, v) -> truncated.put(
+					k,
+					v != null && v.length() > valueMaxLength ? v.substring(0, valueMaxLength) + MarkdownUtils.TRUNCATION_REPLACEMENT : v
+			));
+			values = truncated;
+		}
 	}
 
 	protected static class Entity<T> {
@@ -1059,6 +1727,12 @@ public abstract class ReportPortalStoryReporter extends NullStoryReporter {
 		private final ItemType type;
 		private final T value;
 
+		private TestItemTree.ItemTreeKey key;
+		private TestItemTree.TestItemLeaf leaf;
+		private Boolean examples;
+		private int ordinal;
+		private int scenarios;
+
 		public Entity(ItemType itemType, T itemValue) {
 			type = itemType;
 			value = itemValue;
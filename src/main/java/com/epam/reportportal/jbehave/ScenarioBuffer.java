@@ -0,0 +1,143 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import com.epam.reportportal.listeners.ItemStatus;
+import com.epam.reportportal.service.Launch;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.OperationCompletionRS;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import io.reactivex.Maybe;
+import io.reactivex.subjects.MaybeSubject;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.*;
+
+/**
+ * Collects start and finish requests of Test Items of a Scenario in memory and submits them to a {@link Launch} at once, when the
+ * Scenario is finished. Buffered items get IDs which emit real item IDs after the submission, so logs of the items are sent as usual.
+ * <p>
+ * Requests keep their original timestamps, so the submitted Scenario looks exactly as if it was reported immediately. Subtrees of
+ * items which were started under an item outside the buffer, e.g. a Scenario or an Example under a Story, can be reduced to their
+ * root items if they passed. In this case all their descendants and logs are dropped.
+ *
+ * @author Vadzim Hushchanskou
+ */
+public class ScenarioBuffer {
+
+	private static class Operation {
+		private final Maybe<String> itemId;
+		private final StartTestItemRQ startRq;
+		private final FinishTestItemRQ finishRq;
+		private final MaybeSubject<?> result;
+
+		private Operation(@Nullable final Maybe<String> id, @Nullable final StartTestItemRQ start, @Nullable final FinishTestItemRQ finish,
+				@Nonnull final MaybeSubject<?> operationResult) {
+			itemId = id;
+			startRq = start;
+			finishRq = finish;
+			result = operationResult;
+		}
+	}
+
+	private final List<Operation> operations = new ArrayList<>();
+	private final Map<Maybe<String>, Maybe<String>> roots = new IdentityHashMap<>();
+	private final Set<Maybe<String>> notPassedRoots = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	/**
+	 * Buffers a start request of a Test Item.
+	 *
+	 * @param parentId an ID of a parent item, or null for a root item
+	 * @param rq       the request
+	 * @return an ID of the item, which emits the real item ID after the submission
+	 */
+	@Nonnull
+	public Maybe<String> startTestItem(@Nullable final Maybe<String> parentId, @Nonnull final StartTestItemRQ rq) {
+		MaybeSubject<String> itemId = MaybeSubject.create();
+		Maybe<String> root = parentId == null ? null : roots.get(parentId);
+		roots.put(itemId, root == null ? itemId : root);
+		operations.add(new Operation(parentId, rq, null, itemId));
+		return itemId;
+	}
+
+	/**
+	 * Buffers a finish request of a Test Item.
+	 *
+	 * @param itemId an ID of the item
+	 * @param rq     the request
+	 * @return the request result, which is available after the submission
+	 */
+	@Nonnull
+	public Maybe<OperationCompletionRS> finishTestItem(@Nonnull final Maybe<String> itemId, @Nonnull final FinishTestItemRQ rq) {
+		MaybeSubject<OperationCompletionRS> result = MaybeSubject.create();
+		ofRoot(itemId).filter(r -> rq.getStatus() != null && !ItemStatus.PASSED.name().equals(rq.getStatus()))
+				.ifPresent(notPassedRoots::add);
+		operations.add(new Operation(itemId, null, rq, result));
+		return result;
+	}
+
+	@Nonnull
+	private Optional<Maybe<String>> ofRoot(@Nullable final Maybe<String> itemId) {
+		return Optional.ofNullable(itemId).map(roots::get);
+	}
+
+	/**
+	 * @return true if there are no buffered requests
+	 */
+	public boolean isEmpty() {
+		return operations.isEmpty();
+	}
+
+	/**
+	 * Submits all buffered requests to a Launch in their original order.
+	 *
+	 * @param launch          the Launch to report to
+	 * @param passedRootsOnly report only root items of passed subtrees, drop their descendants
+	 */
+	@SuppressWarnings("unchecked")
+	public void submit(@Nonnull final Launch launch, boolean passedRootsOnly) {
+		Map<Maybe<String>, Maybe<String>> submitted = new IdentityHashMap<>();
+		for (Operation operation : operations) {
+			Maybe<String> id = operation.startRq != null ? (Maybe<String>) operation.result : operation.itemId;
+			Maybe<String> root = ofRoot(id).orElse(null);
+			if (passedRootsOnly && root != null && root != id && !notPassedRoots.contains(root)) {
+				operation.result.onComplete();
+				continue;
+			}
+			// Item IDs which are not from the buffer belong to items started before it
+			Maybe<String> itemId = resolve(operation.itemId, submitted);
+			if (operation.startRq != null) {
+				Maybe<String> result = itemId == null ?
+						launch.startTestItem(operation.startRq) :
+						launch.startTestItem(itemId, operation.startRq);
+				submitted.put(id, result);
+				result.subscribe((MaybeSubject<String>) operation.result);
+			} else {
+				launch.finishTestItem(itemId, operation.finishRq).subscribe((MaybeSubject<OperationCompletionRS>) operation.result);
+			}
+		}
+		operations.clear();
+		roots.clear();
+		notPassedRoots.clear();
+	}
+
+	@Nullable
+	private static Maybe<String> resolve(@Nullable final Maybe<String> itemId, @Nonnull final Map<Maybe<String>, Maybe<String>> submitted) {
+		return itemId == null ? null : Optional.ofNullable(submitted.get(itemId)).orElse(itemId);
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import io.reactivex.Maybe;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Remembers stack traces reported within a Launch by a hash of their content, so a stack trace which was already reported can be
+ * replaced with a short reference to its first occurrence.
+ * <p>
+ * A stack trace is normalized before hashing: exception messages are excluded, since they often contain test data, and numbers of
+ * generated lambda and accessor classes are dropped. So failures of different Example rows in the same place have the same hash.
+ *
+ * @author Vadzim Hushchanskou
+ */
+public class StackTraceRegistry {
+	private static final String HASH_ALGORITHM = "SHA-256";
+	private static final int HASH_LENGTH = 16;
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	private static final Pattern LAMBDA_CLASS = Pattern.compile("\\$\\$Lambda\\$[^.]*");
+	private static final Pattern GENERATED_ACCESSOR = Pattern.compile("(Generated\\w*Accessor)\\d+");
+
+	/**
+	 * The first occurrence of a stack trace.
+	 */
+	public static class Occurrence {
+		private final String hash;
+		private volatile String itemUuid;
+
+		private Occurrence(@Nonnull final String stackTraceHash) {
+			hash = stackTraceHash;
+		}
+
+		/**
+		 * @return the stack trace hash
+		 */
+		@Nonnull
+		public String getHash() {
+			return hash;
+		}
+
+		/**
+		 * @return an ID of a Test Item which the stack trace was reported to first, or null if the item is not started yet
+		 */
+		@Nullable
+		public String getItemUuid() {
+			return itemUuid;
+		}
+	}
+
+	private final Map<String, Occurrence> occurrences = new ConcurrentHashMap<>();
+
+	@Nonnull
+	private static String normalize(@Nonnull final String name) {
+		return GENERATED_ACCESSOR.matcher(LAMBDA_CLASS.matcher(name).replaceAll("\\$\\$Lambda")).replaceAll("$1");
+	}
+
+	/**
+	 * Calculates a hash of a normalized stack trace of a {@link Throwable} and all its causes.
+	 *
+	 * @param thrown a {@link Throwable} to hash
+	 * @return hexadecimal hash string
+	 */
+	@Nonnull
+	public static String hash(@Nonnull final Throwable thrown) {
+		StringBuilder trace = new StringBuilder();
+		Set<Throwable> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Throwable t = thrown; t != null && visited.add(t); t = t.getCause()) {
+			trace.append(t.getClass().getName()).append('\n');
+			for (StackTraceElement element : t.getStackTrace()) {
+				trace.append(normalize(element.getClassName()))
+						.append('.')
+						.append(normalize(element.getMethodName()))
+						.append(':')
+						.append(element.getLineNumber())
+						.append('\n');
+			}
+		}
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		byte[] bytes = digest.digest(trace.toString().getBytes(StandardCharsets.UTF_8));
+		char[] result = new char[HASH_LENGTH];
+		for (int i = 0; i < HASH_LENGTH / 2; i++) {
+			result[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+			result[i * 2 + 1] = HEX[bytes[i] & 0xF];
+		}
+		return new String(result);
+	}
+
+	/**
+	 * Registers a stack trace occurrence.
+	 *
+	 * @param hash   the stack trace hash
+	 * @param itemId an ID of a Test Item which the stack trace is reported to
+	 * @return null if the stack trace is registered for the first time, or its first occurrence otherwise
+	 */
+	@Nullable
+	public Occurrence register(@Nonnull final String hash, @Nonnull final Maybe<String> itemId) {
+		Occurrence occurrence = new Occurrence(hash);
+		Occurrence first = occurrences.putIfAbsent(hash, occurrence);
+		if (first == null) {
+			//noinspection ResultOfMethodCallIgnored
+			itemId.subscribe(id -> occurrence.itemUuid = id, e -> {
+			});
+		}
+		return first;
+	}
+
+	/**
+	 * Forgets all registered stack traces, e.g. when a new Launch is started.
+	 */
+	public void clear() {
+		occurrences.clear();
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.journal;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Reads {@link JournalRecord}s from a journal file written by {@link JournalWriter}. Reading stops on the first record which was not
+ * completely written, so a journal of a crashed process is read up to its last complete record.
+ */
+public class JournalReader implements Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(JournalReader.class);
+
+	private final FileChannel channel;
+	private final ByteBuffer recordHeader = ByteBuffer.allocate(JournalWriter.RECORD_HEADER_SIZE);
+
+	private long position;
+
+	/**
+	 * Opens a journal file for reading.
+	 *
+	 * @param file a path to the journal file
+	 * @throws IOException if the file cannot be opened or is not a journal
+	 */
+	public JournalReader(@Nonnull final Path file) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(JournalWriter.HEADER_SIZE);
+			if (!readFully(header, 0)) {
+				throw new IOException("Not a journal file: " + file);
+			}
+			header.flip();
+			if (header.getInt() != JournalWriter.MAGIC) {
+				throw new IOException("Not a journal file: " + file);
+			}
+			int version = header.getInt();
+			if (version != JournalWriter.VERSION) {
+				throw new IOException("Unsupported journal version: " + version);
+			}
+			position = JournalWriter.HEADER_SIZE;
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	private boolean readFully(@Nonnull final ByteBuffer buffer, long from) throws IOException {
+		long current = from;
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, current);
+			if (read < 0) {
+				return false;
+			}
+			current += read;
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the next record.
+	 *
+	 * @return the record or null if there are no more complete records in the journal
+	 * @throws IOException if the file cannot be read
+	 */
+	@Nullable
+	public JournalRecord next() throws IOException {
+		recordHeader.clear();
+		if (!readFully(recordHeader, position)) {
+			return null;
+		}
+		recordHeader.flip();
+		int length = recordHeader.getInt();
+		int checksum = recordHeader.getInt();
+		if (length <= 0 || length > channel.size() - position - JournalWriter.RECORD_HEADER_SIZE) {
+			return null;
+		}
+		ByteBuffer body = ByteBuffer.allocate(length);
+		if (!readFully(body, position + JournalWriter.RECORD_HEADER_SIZE)) {
+			return null;
+		}
+		CRC32 crc = new CRC32();
+		crc.update(body.array());
+		if ((int) crc.getValue() != checksum) {
+			LOGGER.warn("Journal record at position {} is corrupted, the rest of the journal is skipped", position);
+			return null;
+		}
+		JournalRecord record = JournalRecord.decode(body.array());
+		position += JournalWriter.RECORD_HEADER_SIZE + length;
+		return record;
+	}
+
+	/**
+	 * @return a position in the file after the last read record
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	/**
+	 * Moves the reader to a position returned by {@link #getPosition()} earlier, e.g. to continue reading from a checkpoint.
+	 *
+	 * @param recordPosition a position of a record in the file
+	 */
+	public void seek(long recordPosition) {
+		position = Math.max(JournalWriter.HEADER_SIZE, recordPosition);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.journal;
+
+import com.epam.reportportal.utils.http.HttpRequestUtils;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import okio.Buffer;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * A single reporting event stored in a journal: a start or finish request of a Launch or a Test Item, or logs.
+ */
+public class JournalRecord {
+	private static final String CONTENT_DISPOSITION = "Content-Disposition";
+	private static final String NO_ID = "";
+
+	/**
+	 * Record types. The order is a part of the journal format, new types should be added to the end.
+	 */
+	public enum Type {
+		LAUNCH_START,
+		LAUNCH_FINISH,
+		ITEM_START,
+		ITEM_FINISH,
+		LOG,
+		LOG_BATCH
+	}
+
+	private final Type type;
+	private final String id;
+	private final String parentId;
+	private final byte[] payload;
+
+	/**
+	 * @param recordType   the record type
+	 * @param itemId       an ID of an entity which the record belongs to (if any)
+	 * @param parentItemId an ID of a parent Test Item (if any)
+	 * @param data         serialized request
+	 */
+	public JournalRecord(@Nonnull final Type recordType, @Nullable final String itemId, @Nullable final String parentItemId,
+			@Nonnull final byte[] data) {
+		type = recordType;
+		id = itemId;
+		parentId = parentItemId;
+		payload = data;
+	}
+
+	/**
+	 * Creates a record with a request serialized into JSON.
+	 *
+	 * @param type     the record type
+	 * @param id       an ID of an entity which the record belongs to (if any)
+	 * @param parentId an ID of a parent Test Item (if any)
+	 * @param request  a request to store
+	 * @return the record
+	 * @throws IOException if the request cannot be serialized
+	 */
+	@Nonnull
+	public static JournalRecord of(@Nonnull final Type type, @Nullable final String id, @Nullable final String parentId,
+			@Nonnull final Object request) throws IOException {
+		return new JournalRecord(type, id, parentId, HttpRequestUtils.MAPPER.writeValueAsBytes(request));
+	}
+
+	/**
+	 * Creates a log batch record with all parts of a multipart request, including attached files.
+	 *
+	 * @param parts multipart request parts
+	 * @return the record
+	 * @throws IOException if a part cannot be read
+	 */
+	@Nonnull
+	public static JournalRecord logBatch(@Nonnull final List<MultipartBody.Part> parts) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(parts.size());
+			for (MultipartBody.Part part : parts) {
+				out.writeUTF(ofNullable(part.headers()).map(h -> h.get(CONTENT_DISPOSITION)).orElse(NO_ID));
+				out.writeUTF(ofNullable(part.body().contentType()).map(MediaType::toString).orElse(NO_ID));
+				Buffer buffer = new Buffer();
+				part.body().writeTo(buffer);
+				byte[] body = buffer.readByteArray();
+				out.writeInt(body.length);
+				out.write(body);
+			}
+		}
+		return new JournalRecord(Type.LOG_BATCH, null, null, bytes.toByteArray());
+	}
+
+	@Nonnull
+	public Type getType() {
+		return type;
+	}
+
+	@Nullable
+	public String getId() {
+		return id;
+	}
+
+	@Nullable
+	public String getParentId() {
+		return parentId;
+	}
+
+	@Nonnull
+	public byte[] getPayload() {
+		return payload;
+	}
+
+	/**
+	 * Deserializes a request stored in the record.
+	 *
+	 * @param type request class
+	 * @param <T>  request type
+	 * @return the request
+	 * @throws IOException if the payload is not a valid request JSON
+	 */
+	@Nonnull
+	public <T> T getRequest(@Nonnull final Class<T> type) throws IOException {
+		return HttpRequestUtils.MAPPER.readValue(payload, type);
+	}
+
+	/**
+	 * Restores multipart request parts of a log batch record.
+	 *
+	 * @return multipart request parts
+	 * @throws IOException if the payload is not a valid log batch
+	 */
+	@Nonnull
+	public List<MultipartBody.Part> getParts() throws IOException {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+			int size = in.readInt();
+			List<MultipartBody.Part> parts = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				String disposition = in.readUTF();
+				String contentType = in.readUTF();
+				byte[] body = new byte[in.readInt()];
+				in.readFully(body);
+				RequestBody requestBody = RequestBody.create(body, contentType.isEmpty() ? null : MediaType.parse(contentType));
+				parts.add(MultipartBody.Part.create(
+						disposition.isEmpty() ? null : Headers.of(CONTENT_DISPOSITION, disposition),
+						requestBody
+				));
+			}
+			return parts;
+		}
+	}
+
+	@Nonnull
+	byte[] encode() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + 96);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(type.ordinal());
+			out.writeUTF(ofNullable(id).orElse(NO_ID));
+			out.writeUTF(ofNullable(parentId).orElse(NO_ID));
+			out.writeInt(payload.length);
+			out.write(payload);
+		}
+		return bytes.toByteArray();
+	}
+
+	@Nonnull
+	static JournalRecord decode(@Nonnull final byte[] body) throws IOException {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+			int typeIndex = in.readUnsignedByte();
+			Type[] types = Type.values();
+			if (typeIndex >= types.length) {
+				throw new IOException("Unknown journal record type: " + typeIndex);
+			}
+			String id = in.readUTF();
+			String parentId = in.readUTF();
+			byte[] data = new byte[in.readInt()];
+			in.readFully(data);
+			return new JournalRecord(types[typeIndex], id.isEmpty() ? null : id, parentId.isEmpty() ? null : parentId, data);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "JournalRecord{" + "type=" + type + ", id='" + id + '\'' + ", parentId='" + parentId + '\'' + ", payload=" + payload.length
+				+ " bytes}";
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.journal;
+
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.ta.reportportal.ws.model.*;
+import com.epam.ta.reportportal.ws.model.item.ItemCreatedRS;
+import com.epam.ta.reportportal.ws.model.launch.*;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import com.epam.ta.reportportal.ws.model.project.config.ProjectSettingsResource;
+import io.reactivex.Maybe;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import okhttp3.MultipartBody;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Report Portal client which writes every start, finish and log request into a local journal instead of sending it to Report Portal.
+ * Launch and Test Item UUIDs are generated on the client side and stored in the requests, so the journal can be uploaded later with
+ * the same item hierarchy. Requests which read data from Report Portal are not supported and return empty results.
+ *
+ * @see JournalWriter
+ */
+public class JournalReportPortalClient implements ReportPortalClient, Closeable {
+
+	private final JournalWriter journal;
+
+	/**
+	 * @param file a path to the journal file, the journal is appended if the file exists
+	 * @throws IOException if the journal cannot be opened
+	 */
+	public JournalReportPortalClient(@Nonnull final Path file) throws IOException {
+		this(new JournalWriter(file));
+	}
+
+	/**
+	 * @param journalWriter a journal to write requests to
+	 */
+	public JournalReportPortalClient(@Nonnull final JournalWriter journalWriter) {
+		journal = journalWriter;
+	}
+
+	@Nonnull
+	private static String getUuid(@Nonnull final StartRQ rq) {
+		String uuid = ofNullable(rq.getUuid()).orElseGet(() -> UUID.randomUUID().toString());
+		rq.setUuid(uuid);
+		return uuid;
+	}
+
+	@Nonnull
+	private <T> Maybe<T> write(@Nonnull final JournalRecord.Type type, @Nullable final String id, @Nullable final String parentId,
+			@Nonnull final Object rq, @Nonnull final Supplier<T> response) {
+		try {
+			journal.append(JournalRecord.of(type, id, parentId, rq));
+		} catch (IOException e) {
+			return Maybe.error(e);
+		}
+		return Maybe.just(response.get());
+	}
+
+	@Override
+	public Maybe<ApiInfo> getApiInfo() {
+		return Maybe.empty();
+	}
+
+	@Override
+	public Maybe<StartLaunchRS> startLaunch(StartLaunchRQ rq) {
+		String uuid = getUuid(rq);
+		return write(JournalRecord.Type.LAUNCH_START, uuid, null, rq, () -> new StartLaunchRS(uuid, null));
+	}
+
+	@Override
+	public Maybe<LaunchResource> mergeLaunches(MergeLaunchesRQ rq) {
+		return Maybe.empty();
+	}
+
+	@Override
+	public Maybe<LaunchResource> updateLaunch(String launch, UpdateLaunchRQ rq) {
+		return Maybe.empty();
+	}
+
+	@Override
+	public Maybe<OperationCompletionRS> finishLaunch(String launch, FinishExecutionRQ rq) {
+		Maybe<OperationCompletionRS> result = write(JournalRecord.Type.LAUNCH_FINISH, launch, null, rq, OperationCompletionRS::new);
+		journal.force();
+		return result;
+	}
+
+	@Override
+	public Maybe<ItemCreatedRS> startTestItem(StartTestItemRQ rq) {
+		String uuid = getUuid(rq);
+		return write(JournalRecord.Type.ITEM_START, uuid, null, rq, () -> new ItemCreatedRS(uuid, uuid));
+	}
+
+	@Override
+	public Maybe<ItemCreatedRS> startTestItem(String parent, StartTestItemRQ rq) {
+		String uuid = getUuid(rq);
+		return write(JournalRecord.Type.ITEM_START, uuid, parent, rq, () -> new ItemCreatedRS(uuid, uuid));
+	}
+
+	@Override
+	public Maybe<OperationCompletionRS> finishTestItem(String item, FinishTestItemRQ rq) {
+		return write(JournalRecord.Type.ITEM_FINISH, item, null, rq, OperationCompletionRS::new);
+	}
+
+	@Override
+	public Maybe<EntryCreatedAsyncRS> log(SaveLogRQ rq) {
+		String uuid = ofNullable(rq.getUuid()).orElseGet(() -> UUID.randomUUID().toString());
+		rq.setUuid(uuid);
+		return write(JournalRecord.Type.LOG, rq.getItemUuid(), null, rq, () -> new EntryCreatedAsyncRS(uuid));
+	}
+
+	@Override
+	public Maybe<BatchSaveOperatingRS> log(List<MultipartBody.Part> rq) {
+		try {
+			journal.append(JournalRecord.logBatch(rq));
+		} catch (IOException e) {
+			return Maybe.error(e);
+		}
+		return Maybe.just(new BatchSaveOperatingRS());
+	}
+
+	@Override
+	public Maybe<LaunchResource> getLaunchByUuid(String launchUuid) {
+		return Maybe.empty();
+	}
+
+	@Override
+	public Maybe<TestItemResource> getItemByUuid(String itemUuid) {
+		return Maybe.empty();
+	}
+
+	@Override
+	public Maybe<ProjectSettingsResource> getProjectSettings() {
+		return Maybe.empty();
+	}
+
+	/**
+	 * @return the journal which requests are written to
+	 */
+	@Nonnull
+	public JournalWriter getJournal() {
+		return journal;
+	}
+
+	@Override
+	public void close() throws IOException {
+		journal.close();
+	}
+}
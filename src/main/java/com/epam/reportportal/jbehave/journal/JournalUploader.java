@@ -0,0 +1,471 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.journal;
+
+import com.epam.reportportal.listeners.ListenerParameters;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.utils.http.HttpRequestUtils;
+import com.epam.reportportal.utils.properties.PropertiesLoader;
+import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import okhttp3.MultipartBody;
+import okio.Buffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Uploads a journal written by {@link JournalReportPortalClient} to Report Portal.
+ * <p>
+ * Subtrees of different top-level Test Items (Stories) are uploaded concurrently, while requests of the same subtree are sent in the
+ * journal order, so a parent item is always started before its children and finished after them. Launch start and finish requests
+ * wait for all previous requests. Logs are regrouped by subtree and sent in batches limited by the log batch size and payload limit of
+ * client parameters.
+ * <p>
+ * The journal position, which all records before were uploaded up to, is saved into a checkpoint file, so an interrupted upload can be
+ * continued from it. Some records after the checkpoint could be uploaded before the interruption and are sent again in this case.
+ * <p>
+ * The class can be run as a standalone application: {@code JournalUploader <journal file> [threads]}. Report Portal connection
+ * parameters are read from {@code reportportal.properties} file, JVM system properties or environment variables as usual.
+ *
+ * @author Vadzim Hushchanskou
+ */
+public class JournalUploader implements Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(JournalUploader.class);
+
+	/**
+	 * A suffix which is added to a journal file name to get a checkpoint file name, when the uploader is run as an application
+	 */
+	public static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+	public static final int DEFAULT_THREADS = 4;
+
+	private static final String LAUNCH_LANE = "";
+	private static final String NO_NAME = "";
+	private static final String JSON_PART_NAME = "json_request_part";
+	private static final String DISPOSITION_NAME = "name";
+	private static final String DISPOSITION_FILE_NAME = "filename";
+	private static final int CHECKPOINT_INTERVAL = 1000;
+	private static final int MAX_PENDING_PER_THREAD = 1024;
+	private static final TypeReference<List<SaveLogRQ>> LOG_LIST_TYPE = new TypeReference<List<SaveLogRQ>>() {
+	};
+
+	/**
+	 * Tracks upload of a journal record, a log batch record is uploaded when all its logs are sent.
+	 */
+	private class PendingRecord {
+		private final long position;
+		private final AtomicInteger parts;
+
+		private PendingRecord(long recordPosition, int recordParts) {
+			position = recordPosition;
+			parts = new AtomicInteger(recordParts);
+			pendingRecords.add(position);
+		}
+
+		private void done() {
+			if (parts.decrementAndGet() <= 0) {
+				pendingRecords.remove(position);
+			}
+		}
+	}
+
+	private static class LogEntry {
+		private final SaveLogRQ request;
+		private final long size;
+		private final PendingRecord record;
+
+		private LogEntry(@Nonnull final SaveLogRQ logRequest, @Nonnull final PendingRecord pendingRecord) {
+			request = logRequest;
+			size = HttpRequestUtils.calculateRequestSize(logRequest);
+			record = pendingRecord;
+		}
+	}
+
+	/**
+	 * A serial queue of requests of a single Test Item subtree. Logs are buffered in the lane, and only lane tasks touch the buffer.
+	 */
+	private static class Lane {
+		private final List<LogEntry> logs = new ArrayList<>();
+		private long logsSize;
+		private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+	}
+
+	private interface LaneTask {
+		void run(@Nonnull Lane lane) throws Exception;
+	}
+
+	private final ReportPortalClient client;
+	private final ExecutorService executor;
+	private final int batchSize;
+	private final long batchPayloadLimit;
+	private final Semaphore permits;
+	private final AtomicInteger errors = new AtomicInteger();
+	private final ConcurrentSkipListSet<Long> pendingRecords = new ConcurrentSkipListSet<>();
+
+	// Both maps and the failed launch flag are used by the journal reading thread only
+	private final Map<String, String> roots = new HashMap<>();
+	private final Map<String, Lane> lanes = new HashMap<>();
+	private boolean launchFailed;
+
+	private volatile long submittedPosition;
+
+	/**
+	 * @param reportPortalClient a client to send requests with
+	 * @param parameters         client parameters, log batch size and payload limit are taken from them
+	 * @param threads            a number of threads which send requests concurrently
+	 */
+	public JournalUploader(@Nonnull final ReportPortalClient reportPortalClient, @Nonnull final ListenerParameters parameters,
+			int threads) {
+		client = reportPortalClient;
+		executor = Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r, "rp-journal-upload");
+			t.setDaemon(true);
+			return t;
+		});
+		batchSize = ofNullable(parameters.getBatchLogsSize()).orElse(ListenerParameters.DEFAULT_LOG_BATCH_SIZE);
+		batchPayloadLimit = ofNullable(parameters.getBatchPayloadLimit()).orElse(ListenerParameters.DEFAULT_BATCH_PAYLOAD_LIMIT);
+		permits = new Semaphore(threads * MAX_PENDING_PER_THREAD);
+	}
+
+	/**
+	 * @return a number of requests which failed during upload
+	 */
+	public int getErrors() {
+		return errors.get();
+	}
+
+	/**
+	 * Uploads a journal to Report Portal.
+	 *
+	 * @param journal    a path to the journal file
+	 * @param checkpoint a path to a checkpoint file, if the file exists the upload continues from the saved position; or null to upload
+	 *                   the whole journal without saving checkpoints
+	 * @return a number of uploaded records
+	 * @throws IOException          if the journal cannot be read or the checkpoint cannot be saved
+	 * @throws InterruptedException if the upload was interrupted
+	 */
+	public long upload(@Nonnull final Path journal, @Nullable final Path checkpoint) throws IOException, InterruptedException {
+		try (JournalReader reader = new JournalReader(journal)) {
+			if (checkpoint != null && Files.exists(checkpoint)) {
+				skip(reader, readCheckpoint(checkpoint));
+			}
+			submittedPosition = reader.getPosition();
+			long count = 0;
+			long position = reader.getPosition();
+			JournalRecord record;
+			while ((record = reader.next()) != null) {
+				boolean submitted = submit(record, position);
+				position = reader.getPosition();
+				submittedPosition = position;
+				if (submitted && ++count % CHECKPOINT_INTERVAL == 0) {
+					saveCheckpoint(checkpoint);
+				}
+			}
+			awaitLanes();
+			saveCheckpoint(checkpoint);
+			return count;
+		}
+	}
+
+	/**
+	 * @return a journal position, all records before which were uploaded
+	 */
+	public long getCheckpoint() {
+		long submitted = submittedPosition;
+		Iterator<Long> pending = pendingRecords.iterator();
+		return pending.hasNext() ? pending.next() : submitted;
+	}
+
+	private static long readCheckpoint(@Nonnull final Path checkpoint) throws IOException {
+		String value = new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8).trim();
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid checkpoint file: " + checkpoint, e);
+		}
+	}
+
+	private void saveCheckpoint(@Nullable final Path checkpoint) throws IOException {
+		if (checkpoint == null) {
+			return;
+		}
+		Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+		Files.write(temp, String.valueOf(getCheckpoint()).getBytes(StandardCharsets.UTF_8));
+		Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void skip(@Nonnull final JournalReader reader, long checkpoint) throws IOException {
+		JournalRecord record;
+		while (reader.getPosition() < checkpoint && (record = reader.next()) != null) {
+			if (record.getType() == JournalRecord.Type.ITEM_START) {
+				roots.put(record.getId(), getRoot(record.getId(), record.getParentId()));
+			} else if (record.getType() == JournalRecord.Type.LAUNCH_FINISH) {
+				roots.clear();
+			}
+		}
+	}
+
+	@Nonnull
+	private String getRoot(@Nullable final String id, @Nullable final String parentId) {
+		if (parentId != null) {
+			return roots.getOrDefault(parentId, parentId);
+		}
+		return ofNullable(id).map(i -> roots.getOrDefault(i, i)).orElse(LAUNCH_LANE);
+	}
+
+	/**
+	 * Submits a journal record for upload. Records of a Launch which failed to start are skipped up to its finish record, since Report
+	 * Portal rejects them anyway. The failed Launch start record stays pending, so the checkpoint does not pass it and the whole Launch
+	 * is uploaded again on the next run.
+	 *
+	 * @return true if the record was submitted, false if it was skipped
+	 */
+	private boolean submit(@Nonnull final JournalRecord record, long position) throws IOException, InterruptedException {
+		JournalRecord.Type type = record.getType();
+		if (launchFailed && type != JournalRecord.Type.LAUNCH_START) {
+			launchFailed = type != JournalRecord.Type.LAUNCH_FINISH;
+			return false;
+		}
+		String id = record.getId();
+		String parentId = record.getParentId();
+		switch (type) {
+			case LAUNCH_START:
+				awaitLanes();
+				launchFailed = !send(
+						new PendingRecord(position, 1),
+						() -> client.startLaunch(record.getRequest(StartLaunchRQ.class)).blockingGet()
+				);
+				if (launchFailed) {
+					LOGGER.error("Launch start at position {} failed, records of the Launch are skipped", position);
+				}
+				break;
+			case LAUNCH_FINISH:
+				awaitLanes();
+				send(
+						new PendingRecord(position, 1),
+						() -> client.finishLaunch(id, record.getRequest(FinishExecutionRQ.class)).blockingGet()
+				);
+				lanes.clear();
+				roots.clear();
+				break;
+			case ITEM_START:
+				String root = getRoot(id, parentId);
+				roots.put(id, root);
+				PendingRecord start = new PendingRecord(position, 1);
+				enqueue(root, lane -> {
+					StartTestItemRQ rq = record.getRequest(StartTestItemRQ.class);
+					(parentId == null ? client.startTestItem(rq) : client.startTestItem(parentId, rq)).blockingGet();
+					start.done();
+				});
+				break;
+			case ITEM_FINISH:
+				String itemRoot = getRoot(id, null);
+				if (itemRoot.equals(id)) {
+					// The whole subtree is finished, so there is no reason to keep its logs
+					enqueue(itemRoot, this::flush);
+				}
+				PendingRecord finish = new PendingRecord(position, 1);
+				enqueue(itemRoot, lane -> {
+					client.finishTestItem(id, record.getRequest(FinishTestItemRQ.class)).blockingGet();
+					finish.done();
+				});
+				break;
+			case LOG:
+				submitLogs(Collections.singletonList(record.getRequest(SaveLogRQ.class)), position);
+				break;
+			case LOG_BATCH:
+				submitLogs(getLogs(record.getParts()), position);
+				break;
+		}
+		return true;
+	}
+
+	private boolean send(@Nonnull final PendingRecord record, @Nonnull final Callable<?> request) {
+		try {
+			request.call();
+			record.done();
+			return true;
+		} catch (Exception e) {
+			errors.incrementAndGet();
+			LOGGER.error("Unable to upload journal record at position {}", record.position, e);
+			return false;
+		}
+	}
+
+	private void enqueue(@Nonnull final String laneKey, @Nonnull final LaneTask task) throws InterruptedException {
+		permits.acquire();
+		Lane lane = lanes.computeIfAbsent(laneKey, k -> new Lane());
+		lane.tail = lane.tail.thenRunAsync(
+				() -> {
+					try {
+						task.run(lane);
+					} catch (Exception e) {
+						errors.incrementAndGet();
+						LOGGER.error("Unable to upload a journal record", e);
+					} finally {
+						permits.release();
+					}
+				}, executor
+		);
+	}
+
+	private void awaitLanes() throws InterruptedException {
+		for (String laneKey : lanes.keySet()) {
+			enqueue(laneKey, this::flush);
+		}
+		try {
+			CompletableFuture.allOf(lanes.values().stream().map(l -> l.tail).toArray(CompletableFuture[]::new)).get();
+		} catch (ExecutionException e) {
+			// Lane tasks handle their errors themselves
+			LOGGER.error("Unexpected journal upload error", e);
+		}
+	}
+
+	private void submitLogs(@Nonnull final List<SaveLogRQ> logs, long position) throws InterruptedException {
+		PendingRecord record = new PendingRecord(position, logs.size());
+		if (logs.isEmpty()) {
+			record.done();
+			return;
+		}
+		Map<String, List<SaveLogRQ>> byLane = logs.stream()
+				.collect(Collectors.groupingBy(l -> getRoot(l.getItemUuid(), null), LinkedHashMap::new, Collectors.toList()));
+		for (Map.Entry<String, List<SaveLogRQ>> laneLogs : byLane.entrySet()) {
+			List<SaveLogRQ> rqs = laneLogs.getValue();
+			enqueue(laneLogs.getKey(), lane -> {
+				for (SaveLogRQ rq : rqs) {
+					LogEntry entry = new LogEntry(rq, record);
+					if (!lane.logs.isEmpty() && lane.logsSize + entry.size > batchPayloadLimit) {
+						flush(lane);
+					}
+					lane.logs.add(entry);
+					lane.logsSize += entry.size;
+					if (lane.logs.size() >= batchSize) {
+						flush(lane);
+					}
+				}
+			});
+		}
+	}
+
+	private void flush(@Nonnull final Lane lane) {
+		if (lane.logs.isEmpty()) {
+			return;
+		}
+		List<LogEntry> entries = new ArrayList<>(lane.logs);
+		lane.logs.clear();
+		lane.logsSize = 0;
+		List<SaveLogRQ> rqs = entries.stream().map(e -> e.request).collect(Collectors.toList());
+		client.log(HttpRequestUtils.buildLogMultiPartRequest(rqs)).blockingGet();
+		entries.forEach(e -> e.record.done());
+	}
+
+	@Nullable
+	private static String getDispositionParameter(@Nullable final String disposition, @Nonnull final String name) {
+		if (disposition == null) {
+			return null;
+		}
+		for (String parameter : disposition.split(";")) {
+			String[] pair = parameter.trim().split("=", 2);
+			if (pair.length == 2 && name.equals(pair[0])) {
+				return pair[1].replace("\"", "");
+			}
+		}
+		return null;
+	}
+
+	@Nonnull
+	private static byte[] readBody(@Nonnull final MultipartBody.Part part) throws IOException {
+		Buffer buffer = new Buffer();
+		part.body().writeTo(buffer);
+		return buffer.readByteArray();
+	}
+
+	/**
+	 * Restores log requests with attached files from multipart request parts.
+	 */
+	@Nonnull
+	private static List<SaveLogRQ> getLogs(@Nonnull final List<MultipartBody.Part> parts) throws IOException {
+		List<SaveLogRQ> logs = new ArrayList<>();
+		Map<String, Deque<byte[]>> files = new HashMap<>();
+		for (MultipartBody.Part part : parts) {
+			String disposition = ofNullable(part.headers()).map(h -> h.get("Content-Disposition")).orElse(null);
+			if (JSON_PART_NAME.equals(getDispositionParameter(disposition, DISPOSITION_NAME))) {
+				logs.addAll(HttpRequestUtils.MAPPER.readValue(readBody(part), LOG_LIST_TYPE));
+			} else {
+				String fileName = ofNullable(getDispositionParameter(disposition, DISPOSITION_FILE_NAME)).orElse(NO_NAME);
+				files.computeIfAbsent(fileName, k -> new ArrayDeque<>()).add(readBody(part));
+			}
+		}
+		for (SaveLogRQ log : logs) {
+			ofNullable(log.getFile()).ifPresent(f -> ofNullable(files.get(ofNullable(f.getName()).orElse(NO_NAME))).map(Deque::poll)
+					.ifPresent(f::setContent));
+		}
+		return logs;
+	}
+
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+
+	public static void main(String[] args) {
+		if (args.length < 1) {
+			System.err.println("Usage: " + JournalUploader.class.getName() + " <journal file> [threads]");
+			System.exit(2);
+		}
+		Path journal = Paths.get(args[0]);
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_THREADS;
+		ListenerParameters parameters = new ListenerParameters(PropertiesLoader.load());
+		// Client requests are executed on its IO threads, so there should be at least as many of them as uploading threads
+		parameters.setIoPoolSize(Math.max(threads, ofNullable(parameters.getIoPoolSize()).orElse(0)));
+		ReportPortalClient client = ReportPortal.builder().buildClient(ReportPortalClient.class, parameters);
+		int exitCode;
+		try (JournalUploader uploader = new JournalUploader(client, parameters, threads)) {
+			long records = uploader.upload(journal, Paths.get(args[0] + CHECKPOINT_SUFFIX));
+			LOGGER.info("{} journal records uploaded with {} errors", records, uploader.getErrors());
+			exitCode = uploader.getErrors() > 0 ? 1 : 0;
+		} catch (IOException e) {
+			LOGGER.error("Unable to upload journal '{}'", journal, e);
+			exitCode = 1;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			exitCode = 1;
+		}
+		System.exit(exitCode);
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.journal;
+
+import jakarta.annotation.Nonnull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Appends {@link JournalRecord}s to a memory-mapped journal file.
+ * <p>
+ * The journal starts with a header (magic number and format version) followed by records. Each record is a body length, a CRC32
+ * checksum of the body and the body itself. The length is written last, and the space after the last record is always zeroed, so a
+ * record which was not completely written when the process died is either not visible at all or fails the checksum. Such a tail is
+ * ignored by {@link JournalReader} and overwritten when the journal is opened for writing again.
+ */
+public class JournalWriter implements Closeable {
+	static final int MAGIC = 0x52504A4C; // "RPJL"
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = Integer.BYTES * 2;
+	static final int RECORD_HEADER_SIZE = Integer.BYTES * 2;
+
+	private static final long DEFAULT_REGION_SIZE = 8 * 1024 * 1024;
+
+	private final FileChannel channel;
+	private final long regionSize;
+
+	private MappedByteBuffer region;
+	private long regionStart;
+	private long position;
+
+	/**
+	 * Opens a journal file for writing. Creates the file if it does not exist, or appends to its last valid record otherwise.
+	 *
+	 * @param file a path to the journal file
+	 * @throws IOException if the file cannot be opened or is not a journal
+	 */
+	public JournalWriter(@Nonnull final Path file) throws IOException {
+		this(file, DEFAULT_REGION_SIZE);
+	}
+
+	/**
+	 * Opens a journal file for writing. Creates the file if it does not exist, or appends to its last valid record otherwise.
+	 *
+	 * @param file        a path to the journal file
+	 * @param mappingSize a size of a file region which is mapped into memory at once
+	 * @throws IOException if the file cannot be opened or is not a journal
+	 */
+	public JournalWriter(@Nonnull final Path file, long mappingSize) throws IOException {
+		regionSize = mappingSize;
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			if (channel.size() == 0) {
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+				header.flip();
+				channel.write(header, 0);
+				position = HEADER_SIZE;
+			} else {
+				try (JournalReader reader = new JournalReader(file)) {
+					//noinspection StatementWithEmptyBody
+					while (reader.next() != null) {
+					}
+					position = reader.getPosition();
+				}
+			}
+			map(0);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	private void map(int recordSize) throws IOException {
+		regionStart = position;
+		region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, Math.max(regionSize, recordSize + Integer.BYTES));
+		// The end marker, it could be not zero if the journal was reopened after a crash
+		region.putInt(0, 0);
+	}
+
+	/**
+	 * Appends a record to the journal.
+	 *
+	 * @param record a record to append
+	 * @throws IOException if the record cannot be written
+	 */
+	public synchronized void append(@Nonnull final JournalRecord record) throws IOException {
+		if (region == null) {
+			throw new IOException("The journal is closed");
+		}
+		byte[] body = record.encode();
+		int recordSize = RECORD_HEADER_SIZE + body.length;
+		if (position + recordSize + Integer.BYTES > regionStart + region.capacity()) {
+			region.force();
+			map(recordSize);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(body);
+		int offset = (int) (position - regionStart);
+		region.putInt(offset + recordSize, 0);
+		region.position(offset + RECORD_HEADER_SIZE);
+		region.put(body);
+		region.putInt(offset + Integer.BYTES, (int) crc.getValue());
+		region.putInt(offset, body.length);
+		position += recordSize;
+	}
+
+	/**
+	 * Flushes written records to the storage device.
+	 */
+	public synchronized void force() {
+		if (region != null) {
+			region.force();
+		}
+	}
+
+	/**
+	 * @return a position in the file after the last written record
+	 */
+	public synchronized long getPosition() {
+		return position;
+	}
+
+	/**
+	 * Flushes written records and cuts the zeroed tail of the file.
+	 *
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (region == null) {
+			return;
+		}
+		region.force();
+		region = null;
+		try {
+			channel.truncate(position);
+		} catch (IOException ignore) {
+			// Some platforms do not allow to truncate mapped files, the zeroed tail is a valid end of the journal anyway
+		} finally {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.journal;
+
+import com.epam.reportportal.listeners.ItemStatus;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.ta.reportportal.ws.model.*;
+import com.epam.ta.reportportal.ws.model.item.ItemCreatedRS;
+import com.epam.ta.reportportal.ws.model.launch.*;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import com.epam.ta.reportportal.ws.model.project.config.ProjectSettingsResource;
+import io.reactivex.Maybe;
+import io.reactivex.subjects.MaybeSubject;
+import jakarta.annotation.Nonnull;
+import okhttp3.MultipartBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Report Portal client which sends requests with another client and tracks start, finish and log requests until they complete. When a
+ * deadline-bounded flush is started, e.g. on JVM shutdown, new requests are queued and sent in priority order: finishes of failed items
+ * first, then other item finishes, item starts, logs and the launch finish. When the deadline is reached, queued, incomplete and all
+ * further requests are written into a local journal with {@link JournalReportPortalClient}, so they can be uploaded later with
+ * {@link JournalUploader}.
+ * <p>
+ * A request which was being sent at the deadline could be already received by Report Portal, so it can be uploaded twice.
+ * <p>
+ * As with the delegate client, a request is made on each subscription to a returned {@link Maybe}, so callers can retry failed requests.
+ */
+public class SpillingReportPortalClient implements ReportPortalClient, Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(SpillingReportPortalClient.class);
+
+	private static final String SENDER_THREAD_NAME = "rp-jbehave-flush";
+	private static final int SENDER_THREADS = 4;
+
+	private enum Priority {
+		FAILURE,
+		FINISH,
+		START,
+		LOG,
+		LAUNCH
+	}
+
+	private class Request<T> implements Comparable<Request<?>> {
+		private final Priority priority;
+		private final long sequence = sequences.incrementAndGet();
+		private final Function<ReportPortalClient, Maybe<T>> call;
+		private final MaybeSubject<T> result = MaybeSubject.create();
+
+		private Request(@Nonnull final Priority requestPriority, @Nonnull final Function<ReportPortalClient, Maybe<T>> clientCall) {
+			priority = requestPriority;
+			call = clientCall;
+		}
+
+		private void complete(@Nonnull final Maybe<T> response) {
+			response.subscribe(result::onSuccess, result::onError, result::onComplete);
+		}
+
+		private void start() {
+			inFlight.add(this);
+			//noinspection ResultOfMethodCallIgnored
+			call.apply(delegate).doOnEvent((r, e) -> {
+				if (inFlight.remove(this) && flushing) {
+					sent.incrementAndGet();
+				}
+			}).subscribe(result::onSuccess, result::onError, result::onComplete);
+		}
+
+		private void send(long timeoutNanos) {
+			T response;
+			try {
+				response = call.apply(delegate).timeout(timeoutNanos, TimeUnit.NANOSECONDS).blockingGet();
+			} catch (RuntimeException e) {
+				if (remaining() > 0) {
+					result.onError(e);
+				} else {
+					spill(this);
+				}
+				return;
+			}
+			sent.incrementAndGet();
+			complete(response == null ? Maybe.empty() : Maybe.just(response));
+		}
+
+		@Override
+		public int compareTo(@Nonnull final Request<?> other) {
+			int result = priority.compareTo(other.priority);
+			return result != 0 ? result : Long.compare(sequence, other.sequence);
+		}
+	}
+
+	private final ReportPortalClient delegate;
+	private final Path journalFile;
+	private final LongSupplier clock;
+	private final Supplier<ExecutorService> senderPool;
+	private final PriorityBlockingQueue<Request<?>> queue = new PriorityBlockingQueue<>();
+	private final Set<Request<?>> inFlight = ConcurrentHashMap.newKeySet();
+	private final AtomicLong sequences = new AtomicLong();
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong spilled = new AtomicLong();
+	private final AtomicLong lost = new AtomicLong();
+
+	private volatile boolean flushing;
+	private volatile boolean expired;
+	private volatile long deadline;
+	private ExecutorService senders;
+	private JournalReportPortalClient journal;
+
+	/**
+	 * @param client           a client which sends requests to Report Portal
+	 * @param spillJournalFile a path to the journal file which requests are written to after the deadline, it's created only if needed
+	 */
+	public SpillingReportPortalClient(@Nonnull final ReportPortalClient client, @Nonnull final Path spillJournalFile) {
+		this(client, spillJournalFile, System::nanoTime, SpillingReportPortalClient::createSenders);
+	}
+
+	/**
+	 * @param client           a client which sends requests to Report Portal
+	 * @param spillJournalFile a path to the journal file which requests are written to after the deadline
+	 * @param nanoClock        a source of time in nanoseconds the flush deadline is checked against
+	 * @param senders          a factory of the executor which runs queued request senders during the flush
+	 */
+	SpillingReportPortalClient(@Nonnull final ReportPortalClient client, @Nonnull final Path spillJournalFile,
+			@Nonnull final LongSupplier nanoClock, @Nonnull final Supplier<ExecutorService> senders) {
+		delegate = client;
+		journalFile = spillJournalFile;
+		clock = nanoClock;
+		senderPool = senders;
+	}
+
+	@Nonnull
+	private static ExecutorService createSenders() {
+		return Executors.newFixedThreadPool(SENDER_THREADS, r -> {
+			Thread t = new Thread(r, SENDER_THREAD_NAME);
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	private long remaining() {
+		return deadline - clock.getAsLong();
+	}
+
+	/**
+	 * Starts queuing requests and sending them in priority order until the deadline. The method doesn't block.
+	 *
+	 * @param budget time to send requests, requests which are not sent within it are written into the journal
+	 */
+	public synchronized void flush(@Nonnull final Duration budget) {
+		if (flushing) {
+			return;
+		}
+		deadline = clock.getAsLong() + budget.toNanos();
+		flushing = true;
+		senders = senderPool.get();
+		for (int i = 0; i < SENDER_THREADS; i++) {
+			senders.execute(this::sendQueued);
+		}
+		senders.shutdown();
+	}
+
+	private void sendQueued() {
+		try {
+			Request<?> request;
+			long timeout;
+			while ((timeout = remaining()) > 0 && (request = queue.poll(timeout, TimeUnit.NANOSECONDS)) != null) {
+				request.send(remaining());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		expire();
+	}
+
+	private void expire() {
+		expired = true;
+		List<Request<?>> leftovers = new ArrayList<>(queue.size());
+		queue.drainTo(leftovers);
+		// Requests are removed from the set on completion, so only incomplete ones are written
+		inFlight.stream().filter(inFlight::remove).forEach(leftovers::add);
+		Collections.sort(leftovers);
+		leftovers.forEach(this::spill);
+	}
+
+	private synchronized void spill(@Nonnull final Request<?> request) {
+		if (journal == null) {
+			try {
+				journal = new JournalReportPortalClient(journalFile);
+			} catch (IOException e) {
+				LOGGER.error("Unable to open journal file '{}' to write unsent requests", journalFile, e);
+				lost.incrementAndGet();
+				request.result.onError(e);
+				return;
+			}
+		}
+		spilled.incrementAndGet();
+		spillTo(journal, request);
+	}
+
+	private static <T> void spillTo(@Nonnull final ReportPortalClient client, @Nonnull final Request<T> request) {
+		request.complete(request.call.apply(client));
+	}
+
+	@Nonnull
+	private <T> Maybe<T> submit(@Nonnull final Priority priority, @Nonnull final Function<ReportPortalClient, Maybe<T>> call) {
+		// Each subscription makes a separate call, as with the delegate client, so retries of a failed request are sent again
+		return Maybe.defer(() -> {
+			Request<T> request = new Request<>(priority, call);
+			if (!flushing) {
+				request.start();
+			} else if (expired) {
+				spill(request);
+			} else {
+				queue.add(request);
+				// The deadline could pass while the request was added, in this case senders could miss it
+				if (expired && queue.remove(request)) {
+					spill(request);
+				}
+			}
+			return request.result;
+		});
+	}
+
+	/**
+	 * @return true if the flush was started
+	 */
+	public boolean isFlushing() {
+		return flushing;
+	}
+
+	/**
+	 * @return the number of requests sent during the flush
+	 */
+	public long getSentCount() {
+		return sent.get();
+	}
+
+	/**
+	 * @return the number of requests written into the journal
+	 */
+	public long getSpilledCount() {
+		return spilled.get();
+	}
+
+	/**
+	 * @return the number of requests which were neither sent nor written into the journal
+	 */
+	public long getLostCount() {
+		return lost.get();
+	}
+
+	/**
+	 * @return a path to the journal file which unsent requests are written to
+	 */
+	@Nonnull
+	public Path getJournalFile() {
+		return journalFile;
+	}
+
+	@Override
+	public Maybe<ApiInfo> getApiInfo() {
+		return delegate.getApiInfo();
+	}
+
+	@Override
+	public Maybe<StartLaunchRS> startLaunch(StartLaunchRQ rq) {
+		return submit(Priority.START, c -> c.startLaunch(rq));
+	}
+
+	@Override
+	public Maybe<LaunchResource> mergeLaunches(MergeLaunchesRQ rq) {
+		return delegate.mergeLaunches(rq);
+	}
+
+	@Override
+	public Maybe<LaunchResource> updateLaunch(String launch, UpdateLaunchRQ rq) {
+		return delegate.updateLaunch(launch, rq);
+	}
+
+	@Override
+	public Maybe<OperationCompletionRS> finishLaunch(String launch, FinishExecutionRQ rq) {
+		return submit(Priority.LAUNCH, c -> c.finishLaunch(launch, rq));
+	}
+
+	@Override
+	public Maybe<ItemCreatedRS> startTestItem(StartTestItemRQ rq) {
+		return submit(Priority.START, c -> c.startTestItem(rq));
+	}
+
+	@Override
+	public Maybe<ItemCreatedRS> startTestItem(String parent, StartTestItemRQ rq) {
+		return submit(Priority.START, c -> c.startTestItem(parent, rq));
+	}
+
+	@Override
+	public Maybe<OperationCompletionRS> finishTestItem(String item, FinishTestItemRQ rq) {
+		Priority priority = ItemStatus.FAILED.name().equals(rq.getStatus()) ? Priority.FAILURE : Priority.FINISH;
+		return submit(priority, c -> c.finishTestItem(item, rq));
+	}
+
+	@Override
+	public Maybe<EntryCreatedAsyncRS> log(SaveLogRQ rq) {
+		return submit(Priority.LOG, c -> c.log(rq));
+	}
+
+	@Override
+	public Maybe<BatchSaveOperatingRS> log(List<MultipartBody.Part> rq) {
+		return submit(Priority.LOG, c -> c.log(rq));
+	}
+
+	@Override
+	public Maybe<LaunchResource> getLaunchByUuid(String launchUuid) {
+		return delegate.getLaunchByUuid(launchUuid);
+	}
+
+	@Override
+	public Maybe<TestItemResource> getItemByUuid(String itemUuid) {
+		return delegate.getItemByUuid(itemUuid);
+	}
+
+	@Override
+	public Maybe<ProjectSettingsResource> getProjectSettings() {
+		return delegate.getProjectSettings();
+	}
+
+	/**
+	 * Stops sending queued requests and closes the journal if it was opened. If the flush was started, requests which are still queued or
+	 * incomplete are written into the journal before closing.
+	 *
+	 * @throws IOException if the journal cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		ExecutorService flushSenders;
+		synchronized (this) {
+			flushSenders = senders;
+		}
+		if (flushSenders != null) {
+			flushSenders.shutdownNow();
+			expire();
+		}
+		synchronized (this) {
+			if (journal != null) {
+				journal.close();
+			}
+		}
+	}
+}
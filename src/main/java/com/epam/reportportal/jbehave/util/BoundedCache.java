@@ -0,0 +1,72 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.util;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache with limited size. The least recently used entry is evicted when the cache is full.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedCache<K, V> {
+
+	private final Map<K, V> cache;
+
+	/**
+	 * @param maxSize maximum number of entries to keep
+	 */
+	public BoundedCache(final int maxSize) {
+		cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > maxSize;
+			}
+		});
+	}
+
+	/**
+	 * Returns cached value for the key or calculates and caches it.
+	 *
+	 * @param key             a cache key
+	 * @param mappingFunction a function to calculate the value
+	 * @return the value
+	 */
+	public V computeIfAbsent(@Nonnull final K key, @Nonnull final Function<? super K, ? extends V> mappingFunction) {
+		return cache.computeIfAbsent(key, mappingFunction);
+	}
+
+	/**
+	 * @return current number of cached entries
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	/**
+	 * Removes all cached entries.
+	 */
+	public void clear() {
+		cache.clear();
+	}
+}
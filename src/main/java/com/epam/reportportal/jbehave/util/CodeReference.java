@@ -0,0 +1,130 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.util;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+/**
+ * A code reference stored as a chain of segments with pointers to parent references, e.g.
+ * 'story/[SCENARIO:name]/[EXAMPLE:[a:1;b:2]]/[STEP:name]'. Child references share their parents, so long prefixes, like Example
+ * parameters, are kept in memory once instead of being copied into the code reference of every step. The string representation is
+ * built on each {@link #toString()} call and is not cached.
+ */
+public class CodeReference {
+	private static final char DELIMITER = '/';
+	private static final char ITEM_START = '[';
+	private static final char ITEM_TYPE_DELIMITER = ':';
+	private static final char ITEM_END = ']';
+
+	private final CodeReference parent;
+	private final String type;
+	private final String name;
+	private final int length;
+
+	private CodeReference(@Nullable final CodeReference parentReference, @Nullable final String itemType, @Nonnull final String itemName) {
+		parent = parentReference;
+		type = itemType;
+		name = itemName;
+		length = parent == null ? name.length() : parent.length + type.length() + name.length() + 4;
+	}
+
+	/**
+	 * Creates a root code reference.
+	 *
+	 * @param codeRef a code reference string, e.g. a story path
+	 * @return the code reference
+	 */
+	@Nonnull
+	public static CodeReference of(@Nonnull final String codeRef) {
+		return new CodeReference(null, null, codeRef);
+	}
+
+	@Nonnull
+	private static String sanitize(@Nonnull final String name) {
+		if (name.indexOf('\n') < 0 && name.indexOf('\r') < 0) {
+			return name;
+		}
+		return name.replace("\n", "").replace("\r", "");
+	}
+
+	/**
+	 * Creates a code reference of a child item. Line breaks are removed from the item name.
+	 *
+	 * @param itemType a type of the child item
+	 * @param itemName a name of the child item
+	 * @return the child code reference
+	 */
+	@Nonnull
+	public CodeReference child(@Nonnull final String itemType, @Nonnull final String itemName) {
+		return new CodeReference(this, itemType, sanitize(itemName));
+	}
+
+	/**
+	 * @return a length of the code reference string
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Compares the code reference with a string without building the string representation.
+	 *
+	 * @param codeRef a code reference string
+	 * @return true if the code reference string is equal to the bypassed one
+	 */
+	public boolean contentEquals(@Nullable final String codeRef) {
+		if (codeRef == null || codeRef.length() != length) {
+			return false;
+		}
+		int end = length;
+		for (CodeReference r = this; r != null; r = r.parent) {
+			if (r.parent == null) {
+				return codeRef.regionMatches(0, r.name, 0, end);
+			}
+			int nameStart = end - 1 - r.name.length();
+			int typeStart = nameStart - 1 - r.type.length();
+			if (codeRef.charAt(end - 1) != ITEM_END || !codeRef.regionMatches(nameStart, r.name, 0, r.name.length())
+					|| codeRef.charAt(nameStart - 1) != ITEM_TYPE_DELIMITER || !codeRef.regionMatches(typeStart, r.type, 0, r.type.length())
+					|| codeRef.charAt(typeStart - 1) != ITEM_START || codeRef.charAt(typeStart - 2) != DELIMITER) {
+				return false;
+			}
+			end = typeStart - 2;
+		}
+		return true;
+	}
+
+	private void appendTo(@Nonnull final StringBuilder builder) {
+		if (parent == null) {
+			builder.append(name);
+			return;
+		}
+		parent.appendTo(builder);
+		builder.append(DELIMITER).append(ITEM_START).append(type).append(ITEM_TYPE_DELIMITER).append(name).append(ITEM_END);
+	}
+
+	/**
+	 * @return the code reference string
+	 */
+	@Override
+	@Nonnull
+	public String toString() {
+		StringBuilder builder = new StringBuilder(length);
+		appendTo(builder);
+		return builder.toString();
+	}
+}
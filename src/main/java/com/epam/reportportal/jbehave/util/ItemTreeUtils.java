@@ -21,16 +21,19 @@ import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.jbehave.core.model.Story;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
-import static com.epam.reportportal.jbehave.JBehaveUtils.formatExampleKey;
-
 public class ItemTreeUtils {
 
 	private ItemTreeUtils() {
 		throw new AssertionError("No instances should exist for the class!");
 	}
 
+	private static final String EXAMPLE_DIGEST_KEY_PATTERN = "[EXAMPLE:%s]";
+	private static final String EXAMPLE_INDEX_KEY_PATTERN = "[EXAMPLE:%d:%d]";
+
 	public static TestItemTree.ItemTreeKey createKey(@Nullable final String key) {
 		return TestItemTree.ItemTreeKey.of(key);
 	}
@@ -39,7 +42,32 @@ public class ItemTreeUtils {
 		return TestItemTree.ItemTreeKey.of(key.getPath());
 	}
 
+	/**
+	 * Creates a key of an Example row by a digest of its parameters. The key has a fixed length regardless of cell sizes, so large
+	 * cell values don't slow down Test Item Tree lookups. Rows with the same parameters get the same key.
+	 *
+	 * @param example a map of parameters: name-&gt;value
+	 * @return the key
+	 */
 	public static TestItemTree.ItemTreeKey createKey(@Nonnull final Map<String, String> example) {
-		return TestItemTree.ItemTreeKey.of(formatExampleKey(example));
+		List<String> parameters = new ArrayList<>(example.size() * 2);
+		example.forEach((k, v) -> {
+			parameters.add(k);
+			parameters.add(v);
+		});
+		return TestItemTree.ItemTreeKey.of(String.format(EXAMPLE_DIGEST_KEY_PATTERN, TestCaseIdHash.hash(null, parameters)));
+	}
+
+	/**
+	 * Creates a key of an Example row by its Scenario and its index in the Examples table. The key has a bounded length regardless of
+	 * cell sizes and keeps rows with the same parameters apart. Scenarios are identified by their order in a Story rather than their
+	 * names, so rows of same-named Scenarios don't collide.
+	 *
+	 * @param scenarioOrdinal an index of the Scenario of the row among Scenarios of its Story
+	 * @param exampleIndex    the row index
+	 * @return the key
+	 */
+	public static TestItemTree.ItemTreeKey createKey(int scenarioOrdinal, int exampleIndex) {
+		return TestItemTree.ItemTreeKey.of(String.format(EXAMPLE_INDEX_KEY_PATTERN, scenarioOrdinal, exampleIndex));
 	}
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.util;
+
+import jakarta.annotation.Nonnull;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Formats stack traces with frame filtering and truncation. Frames of classes which names start with one of filter prefixes are
+ * collapsed into "N frames elided" lines, except the top frame of each exception. Frames above the frame limit and frames which do
+ * not fit the size limit are collapsed in the same way. Exception headers of the whole cause chain are always kept.
+ */
+public class StackTraceFormatter {
+	private static final String NEW_LINE = "\n";
+	private static final String CAUSE_PREFIX = "Caused by: ";
+	private static final String FRAME_PREFIX = "\tat ";
+	private static final String ELIDED_PATTERN = "\t... %d frames elided";
+
+	private static class Line {
+		private final String text;
+		private final int frames;
+
+		private Line(@Nonnull final String lineText, int frameNumber) {
+			text = lineText;
+			frames = frameNumber;
+		}
+
+		private static Line frame(@Nonnull final StackTraceElement element) {
+			return new Line(FRAME_PREFIX + element, 1);
+		}
+
+		private static Line elided(int frames) {
+			return new Line(String.format(ELIDED_PATTERN, frames), frames);
+		}
+	}
+
+	private final List<String> filters;
+	private final int maxFrames;
+	private final int maxBytes;
+
+	/**
+	 * @param classFilters prefixes of class names which frames should be elided
+	 * @param frameLimit   maximum number of frames of an exception, 0 - unlimited
+	 * @param sizeLimit    maximum size of a formatted stack trace in bytes, 0 - unlimited; exception headers are kept even if they
+	 *                     exceed the limit
+	 */
+	public StackTraceFormatter(@Nonnull final List<String> classFilters, int frameLimit, int sizeLimit) {
+		filters = Collections.unmodifiableList(new ArrayList<>(classFilters));
+		maxFrames = frameLimit;
+		maxBytes = sizeLimit;
+	}
+
+	/**
+	 * @return true if the formatter filters or truncates stack traces
+	 */
+	public boolean isEnabled() {
+		return !filters.isEmpty() || maxFrames > 0 || maxBytes > 0;
+	}
+
+	private static int utf8Length(@Nonnull final CharSequence text) {
+		int length = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c < 0x80) {
+				length++;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c)) {
+				length += 4;
+				i++;
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	private boolean isFiltered(@Nonnull final StackTraceElement element) {
+		String className = element.getClassName();
+		for (String filter : filters) {
+			if (className.startsWith(filter)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Nonnull
+	private List<Line> getLines(@Nonnull final Throwable thrown) {
+		StackTraceElement[] elements = thrown.getStackTrace();
+		List<Line> lines = new ArrayList<>();
+		int kept = 0;
+		int elided = 0;
+		for (int i = 0; i < elements.length; i++) {
+			boolean keep = (i == 0 || !isFiltered(elements[i])) && (maxFrames <= 0 || kept < maxFrames);
+			if (!keep) {
+				elided++;
+				continue;
+			}
+			if (elided > 0) {
+				lines.add(Line.elided(elided));
+				elided = 0;
+			}
+			lines.add(Line.frame(elements[i]));
+			kept++;
+		}
+		if (elided > 0) {
+			lines.add(Line.elided(elided));
+		}
+		return lines;
+	}
+
+	/**
+	 * Formats a stack trace of a {@link Throwable} and all its causes.
+	 *
+	 * @param thrown a {@link Throwable} to format
+	 * @return formatted stack trace
+	 */
+	@Nonnull
+	public String format(@Nonnull final Throwable thrown) {
+		List<Throwable> chain = ExceptionUtils.getThrowableList(thrown);
+		List<String> headers = new ArrayList<>(chain.size());
+		int budget = maxBytes > 0 ? maxBytes : Integer.MAX_VALUE;
+		for (int i = 0; i < chain.size(); i++) {
+			String header = (i == 0 ? "" : CAUSE_PREFIX) + chain.get(i);
+			headers.add(header);
+			budget -= utf8Length(header) + NEW_LINE.length();
+		}
+
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < chain.size(); i++) {
+			if (i > 0) {
+				result.append(NEW_LINE);
+			}
+			result.append(headers.get(i));
+			List<Line> lines = getLines(chain.get(i));
+			for (int j = 0; j < lines.size(); j++) {
+				Line line = lines.get(j);
+				int size = utf8Length(line.text) + NEW_LINE.length();
+				if (size > budget) {
+					int rest = lines.subList(j, lines.size()).stream().mapToInt(l -> l.frames).sum();
+					result.append(NEW_LINE).append(Line.elided(rest).text);
+					budget = 0;
+					break;
+				}
+				result.append(NEW_LINE).append(line.text);
+				budget -= size;
+			}
+		}
+		return result.toString();
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.util;
+
+import com.epam.reportportal.listeners.ItemStatus;
+import com.epam.reportportal.service.tree.TestItemTree;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.*;
+import java.util.function.BinaryOperator;
+
+/**
+ * A running aggregate of statuses of finished child items of a Test Item: the evaluated status and the number of children with each
+ * status. It's updated when a child item finishes, so the parent status is known without evaluating all its children again. Statuses
+ * which were set directly on child leaves after they finished, e.g. by callback reporting, are picked up with {@link #refresh}.
+ */
+public class StatusAggregate {
+
+	private final Map<TestItemTree.TestItemLeaf, ItemStatus> children = new IdentityHashMap<>();
+	private final Map<ItemStatus, Integer> counts = new EnumMap<>(ItemStatus.class);
+	private ItemStatus status;
+
+	/**
+	 * Adds a status of a finished child item. If the child was already added, its previous status is replaced.
+	 *
+	 * @param child       the child item leaf
+	 * @param childStatus the child item status
+	 * @param evaluation  a function which evaluates the aggregate status from the current one and the child status
+	 */
+	public synchronized void add(@Nonnull final TestItemTree.TestItemLeaf child, @Nullable final ItemStatus childStatus,
+			@Nonnull final BinaryOperator<ItemStatus> evaluation) {
+		if (children.containsKey(child)) {
+			replace(child, childStatus);
+			evaluate(evaluation);
+			return;
+		}
+		children.put(child, childStatus);
+		status = evaluation.apply(status, childStatus);
+		increment(childStatus);
+	}
+
+	/**
+	 * Updates the aggregate with current statuses of added child leaves, if any of them was changed after it was added.
+	 *
+	 * @param evaluation a function which evaluates the aggregate status from the current one and a child status
+	 */
+	public synchronized void refresh(@Nonnull final BinaryOperator<ItemStatus> evaluation) {
+		boolean changed = false;
+		for (Map.Entry<TestItemTree.TestItemLeaf, ItemStatus> entry : children.entrySet()) {
+			ItemStatus current = entry.getKey().getStatus();
+			if (current != entry.getValue()) {
+				decrement(entry.getValue());
+				increment(current);
+				entry.setValue(current);
+				changed = true;
+			}
+		}
+		if (changed) {
+			evaluate(evaluation);
+		}
+	}
+
+	private void replace(@Nonnull final TestItemTree.TestItemLeaf child, @Nullable final ItemStatus childStatus) {
+		decrement(children.put(child, childStatus));
+		increment(childStatus);
+	}
+
+	private void evaluate(@Nonnull final BinaryOperator<ItemStatus> evaluation) {
+		status = null;
+		children.values().forEach(s -> status = evaluation.apply(status, s));
+	}
+
+	private void increment(@Nullable final ItemStatus childStatus) {
+		if (childStatus != null) {
+			counts.merge(childStatus, 1, Integer::sum);
+		}
+	}
+
+	private void decrement(@Nullable final ItemStatus childStatus) {
+		if (childStatus != null) {
+			counts.computeIfPresent(childStatus, (k, v) -> v > 1 ? v - 1 : null);
+		}
+	}
+
+	/**
+	 * @return the status evaluated from all added child statuses, or null if no status was added
+	 */
+	@Nullable
+	public synchronized ItemStatus getStatus() {
+		return status;
+	}
+
+	/**
+	 * @param childStatus a child item status
+	 * @return the number of finished child items with the status
+	 */
+	public synchronized int getCount(@Nonnull final ItemStatus childStatus) {
+		return counts.getOrDefault(childStatus, 0);
+	}
+
+	/**
+	 * @return the numbers of finished child items by their statuses, only statuses with at least one child are present
+	 */
+	@Nonnull
+	public synchronized Map<ItemStatus, Integer> getCounts() {
+		return Collections.unmodifiableMap(new EnumMap<>(counts));
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.util;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A parsed step pattern. Keeps literal segments of the step and Example parameter placeholders ('&lt;name&gt;') separately, so
+ * the step can be formatted with every Example row in a single pass without regular expressions.
+ */
+public class StepTemplate {
+	private static final char PLACEHOLDER_START = '<';
+	private static final char PLACEHOLDER_END = '>';
+
+	private final String step;
+	private final String[] literals;
+	private final List<String> parameterNames;
+
+	private StepTemplate(@Nonnull final String stepPattern, @Nonnull final List<String> stepLiterals,
+			@Nonnull final List<String> stepParameters) {
+		step = stepPattern;
+		literals = stepLiterals.toArray(new String[0]);
+		parameterNames = Collections.unmodifiableList(stepParameters);
+	}
+
+	/**
+	 * Parses a step pattern.
+	 *
+	 * @param step a step name pattern
+	 * @return the step template
+	 */
+	@Nonnull
+	public static StepTemplate parse(@Nonnull final String step) {
+		List<String> literals = new ArrayList<>();
+		List<String> parameters = new ArrayList<>();
+		int position = 0;
+		int start;
+		while ((start = step.indexOf(PLACEHOLDER_START, position)) >= 0) {
+			int end = step.indexOf(PLACEHOLDER_END, start + 1);
+			if (end < 0) {
+				break;
+			}
+			literals.add(step.substring(position, start));
+			parameters.add(step.substring(start + 1, end));
+			position = end + 1;
+		}
+		literals.add(step.substring(position));
+		return new StepTemplate(step, literals, parameters);
+	}
+
+	/**
+	 * @return parameter names used in the step in order of appearance
+	 */
+	@Nonnull
+	public List<String> getParameterNames() {
+		return parameterNames;
+	}
+
+	/**
+	 * Replaces parameter placeholders with Example values. Placeholders which have no value in the Example are left as is.
+	 *
+	 * @param example example parameters map
+	 * @return formatted step name
+	 */
+	@Nonnull
+	public String format(@Nonnull final Map<String, String> example) {
+		if (parameterNames.isEmpty()) {
+			return step;
+		}
+		StringBuilder sb = new StringBuilder(step.length() + 16 * parameterNames.size());
+		for (int i = 0; i < parameterNames.size(); i++) {
+			sb.append(literals[i]);
+			String name = parameterNames.get(i);
+			String value = example.get(name);
+			if (value == null && !example.containsKey(name)) {
+				sb.append(PLACEHOLDER_START).append(name).append(PLACEHOLDER_END);
+			} else {
+				sb.append(value);
+			}
+		}
+		return sb.append(literals[literals.length - 1]).toString();
+	}
+}
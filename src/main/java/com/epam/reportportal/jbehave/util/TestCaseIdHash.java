@@ -0,0 +1,87 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.util;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * A stable 64-bit hash of a code reference and test parameters, which is used as a short Test Case ID. The hash is calculated over
+ * string characters with FNV-1a and mixed with a MurmurHash3 finalizer, so it doesn't depend on JVM, platform or default charset.
+ */
+public class TestCaseIdHash {
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+	private static final int HASH_LENGTH = 16;
+	private static final char NULL_MARKER = '\u0000';
+	private static final char SEPARATOR = '\u001f';
+
+	private TestCaseIdHash() {
+		throw new AssertionError("No instances should exist for the class!");
+	}
+
+	private static long update(long hash, char c) {
+		return (hash ^ c) * FNV_PRIME;
+	}
+
+	private static long update(long hash, @Nullable final String value) {
+		long result = hash;
+		if (value == null) {
+			return update(result, NULL_MARKER);
+		}
+		for (int i = 0; i < value.length(); i++) {
+			result = update(result, value.charAt(i));
+		}
+		return update(result, SEPARATOR);
+	}
+
+	private static long mix(long hash) {
+		long result = hash;
+		result ^= result >>> 33;
+		result *= 0xff51afd7ed558ccdL;
+		result ^= result >>> 33;
+		result *= 0xc4ceb9fe1a85ec53L;
+		result ^= result >>> 33;
+		return result;
+	}
+
+	/**
+	 * Calculates a 64-bit hash of a code reference and test parameters.
+	 *
+	 * @param codeRef a test code reference
+	 * @param params  test parameter values (if any)
+	 * @return 16 characters hexadecimal hash string
+	 */
+	@Nonnull
+	public static String hash(@Nullable final String codeRef, @Nullable final List<String> params) {
+		long hash = update(FNV_OFFSET_BASIS, codeRef);
+		if (params != null) {
+			hash = update(hash, String.valueOf(params.size()));
+			for (String param : params) {
+				hash = update(hash, param);
+			}
+		}
+		String hex = Long.toHexString(mix(hash));
+		StringBuilder result = new StringBuilder(HASH_LENGTH);
+		for (int i = hex.length(); i < HASH_LENGTH; i++) {
+			result.append('0');
+		}
+		return result.append(hex).toString();
+	}
+}
@@ -90,6 +90,17 @@ public class BaseTest {
 
 	public static void run(@Nonnull final Class<?> clazz, @Nonnull final Format format, @Nonnull final List<String> stories,
 			@Nonnull final StoryParser parser, @Nullable final Object... steps) {
+		runParallel(clazz, format, stories, parser, 1, steps);
+	}
+
+	public static void runParallel(@Nonnull final Class<?> clazz, @Nonnull final Format format, @Nonnull final List<String> stories,
+			@Nonnull final StoryParser parser, int threads, @Nullable final Object... steps) {
+		createEmbedder(clazz, format, parser, threads, steps).runStoriesAsPaths(stories);
+	}
+
+	@Nonnull
+	public static Embedder createEmbedder(@Nonnull final Class<?> clazz, @Nonnull final Format format, @Nonnull final StoryParser parser,
+			int threads, @Nullable final Object... steps) {
 		Properties viewResources = new Properties();
 
 		Embedder embedder = new Embedder();
@@ -100,7 +111,8 @@ public class BaseTest {
 				.doIgnoreFailureInStories(true)
 				.doIgnoreFailureInView(true)
 				.doVerboseFailures(false)
-				.doVerboseFiltering(false));
+				.doVerboseFiltering(false)
+				.useThreads(threads));
 
 		embedder.useConfiguration(new MostUsefulConfiguration().useStoryLoader(new LoadFromClasspath(clazz))
 				.useStoryPathResolver(new UnderscoredCamelCaseResolver())
@@ -117,7 +129,7 @@ public class BaseTest {
 				steps == null ? Collections.emptyList() : Arrays.asList(steps)
 		);
 		embedder.useStepsFactory(stepsFactory);
-		embedder.runStoriesAsPaths(stories);
+		return embedder;
 	}
 
 	public void run(@Nonnull final Format format, @Nonnull final List<String> stories, @Nonnull final StoryParser parser,
@@ -39,6 +39,7 @@ import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.Mockito.*;
@@ -106,5 +107,10 @@ public class CallbackReportingTest extends BaseTest {
 		assertThat(logRq.getItemUuid(), equalTo(failureUpdates.get(0).getKey()));
 
 		secondScenarioIds.forEach(e -> assertThat(e.getValue().getStatus(), equalTo("PASSED")));
+
+		List<String> scenarioStatuses = scenarioIds.stream()
+				.map(id -> idRqs.stream().filter(e -> id.equals(e.getKey())).findAny().map(e -> e.getValue().getStatus()).orElse(null))
+				.collect(Collectors.toList());
+		assertThat(scenarioStatuses, contains("FAILED", "PASSED"));
 	}
 }
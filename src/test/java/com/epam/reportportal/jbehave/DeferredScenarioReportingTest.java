@@ -0,0 +1,134 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import com.epam.reportportal.jbehave.integration.basic.EmptySteps;
+import com.epam.reportportal.jbehave.integration.basic.FailedSteps;
+import com.epam.reportportal.listeners.ItemStatus;
+import com.epam.reportportal.listeners.LogLevel;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.util.test.CommonUtils;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import okhttp3.MultipartBody;
+import org.apache.commons.lang3.tuple.Pair;
+import org.jbehave.core.annotations.Given;
+import org.jbehave.core.annotations.Then;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+public class DeferredScenarioReportingTest extends BaseTest {
+
+	private static final String STORY_PATH = "stories/status/PassedFailedScenarios.story";
+
+	private final String storyId = CommonUtils.namedId("story_");
+	private final List<String> scenarioIds = Stream.generate(() -> CommonUtils.namedId("scenario_")).limit(2).collect(Collectors.toList());
+	private final List<List<String>> stepIds = Stream.generate(() -> Stream.generate(() -> CommonUtils.namedId("step_"))
+			.limit(2)
+			.collect(Collectors.toList())).limit(2).collect(Collectors.toList());
+
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+	private final JBehaveParameters parameters = new JBehaveParameters();
+	private final ReportPortalStepFormat format = new ReportPortalStepFormat(
+			ReportPortal.create(client, standardParameters(), testExecutor()),
+			parameters
+	);
+
+	/**
+	 * Records how many Scenario items were started on Report Portal when a step is executed.
+	 */
+	public class RecordingSteps {
+		private final List<Long> startedScenarios = new ArrayList<>();
+
+		private void record() {
+			startedScenarios.add(mockingDetails(client).getInvocations()
+					.stream()
+					.filter(i -> "startTestItem".equals(i.getMethod().getName()) && i.getArguments().length == 2)
+					.filter(i -> storyId.equals(i.getArguments()[0]))
+					.count());
+		}
+
+		@Given("I have empty step")
+		public void emptyStep() {
+			record();
+		}
+
+		@Then("I have another empty step")
+		public void anotherEmptyStep() {
+			record();
+		}
+	}
+
+	@BeforeEach
+	public void setupMock() {
+		mockLaunch(
+				client,
+				null,
+				storyId,
+				Arrays.asList(Pair.of(scenarioIds.get(0), stepIds.get(0)), Pair.of(scenarioIds.get(1), stepIds.get(1)))
+		);
+		mockBatchLogging(client);
+		parameters.setScenarioReporting(ReportPortalStoryReporter.ScenarioReporting.DEFERRED);
+	}
+
+	@Test
+	public void verify_scenario_items_are_sent_after_scenario_finish() {
+		RecordingSteps steps = new RecordingSteps();
+		run(format, STORY_PATH, steps, new FailedSteps());
+		format.finishLaunch();
+
+		// Items of a Scenario are not sent while it's running, items of a finished Scenario are sent asynchronously
+		assertThat(steps.startedScenarios, contains(equalTo(0L), equalTo(0L), lessThanOrEqualTo(1L)));
+
+		verify(client, times(2)).startTestItem(same(storyId), any());
+		scenarioIds.forEach(id -> {
+			verify(client, times(2)).startTestItem(same(id), any());
+			verify(client).finishTestItem(same(id), any());
+		});
+
+		ArgumentCaptor<FinishTestItemRQ> finishCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		stepIds.stream().flatMap(List::stream).forEach(id -> verify(client).finishTestItem(same(id), finishCaptor.capture()));
+		assertThat(
+				finishCaptor.getAllValues().stream().map(FinishTestItemRQ::getStatus).collect(Collectors.toList()),
+				contains(ItemStatus.PASSED.name(), ItemStatus.PASSED.name(), ItemStatus.PASSED.name(), ItemStatus.FAILED.name())
+		);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void verify_logs_of_deferred_step_code_are_attached_to_the_step() {
+		run(format, STORY_PATH, new EmptySteps(), new FailedSteps());
+		format.finishLaunch();
+
+		ArgumentCaptor<List<MultipartBody.Part>> logCaptor = ArgumentCaptor.forClass(List.class);
+		verify(client, atLeast(1)).log(logCaptor.capture());
+		verifyLogged(logCaptor, stepIds.get(1).get(1), LogLevel.INFO, "Inside 'I have a failed step'");
+	}
+}
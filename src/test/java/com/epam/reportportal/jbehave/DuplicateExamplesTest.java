@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import com.epam.reportportal.jbehave.integration.basic.ParameterizedSteps;
+import com.epam.reportportal.jbehave.integration.basic.StockSteps;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.service.tree.TestItemTree;
+import com.epam.reportportal.util.test.CommonUtils;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class DuplicateExamplesTest extends BaseTest {
+
+	public static final int STEPS_QUANTITY = 4;
+	private static final String STORY_PATH = "stories/DuplicateExamples.story";
+	private static final String EXAMPLE_CODE_REF = STORY_PATH
+			+ "/[SCENARIO:Stock trade alert]/[EXAMPLE:[symbol:STK1$;threshold:10.0;price:5.0;status:OFF]]";
+	private static final String SAME_NAME_STORY_PATH = "stories/SameNameExamples.story";
+	private static final List<String> SAME_NAME_EXAMPLE_CODE_REFS = Arrays.asList(
+			SAME_NAME_STORY_PATH + "/[SCENARIO:Stock trade alert]/[EXAMPLE:[symbol:STK1$;threshold:10.0;price:5.0;status:OFF]]",
+			SAME_NAME_STORY_PATH + "/[SCENARIO:Stock trade alert]/[EXAMPLE:[symbol:STK2$;threshold:10.0;price:11.0;status:ON]]"
+	);
+
+	private final String storyId = CommonUtils.namedId("story_");
+	private final List<String> exampleIds = Stream.generate(() -> CommonUtils.namedId("example_")).limit(2).collect(Collectors.toList());
+	private final List<Pair<String, List<String>>> stepIds = exampleIds.stream()
+			.map(e -> Pair.of(e, Stream.generate(() -> CommonUtils.namedId("step_")).limit(STEPS_QUANTITY).collect(Collectors.toList())))
+			.collect(Collectors.toList());
+
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+	private final ReportPortalStepFormat format = new ReportPortalStepFormat(ReportPortal.create(
+			client,
+			standardParameters(),
+			testExecutor()
+	));
+
+	@BeforeEach
+	public void setupMock() {
+		mockLaunch(client, null, storyId, stepIds);
+		mockBatchLogging(client);
+	}
+
+	@Test
+	public void verify_duplicate_example_rows_reported_separately() {
+		run(format, STORY_PATH, new StockSteps(), new ParameterizedSteps());
+
+		ArgumentCaptor<StartTestItemRQ> exampleCaptor = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(client, times(2)).startTestItem(same(storyId), exampleCaptor.capture());
+		exampleIds.forEach(id -> verify(client, times(STEPS_QUANTITY)).startTestItem(same(id), any()));
+
+		exampleCaptor.getAllValues().forEach(rq -> assertThat(rq.getCodeRef(), equalTo(EXAMPLE_CODE_REF)));
+
+		TestItemTree.TestItemLeaf story = format.getItemTree().getTestItems().values().iterator().next();
+		assertThat(story.getChildItems().keySet(), hasSize(2));
+		story.getChildItems().keySet().forEach(k -> assertThat(k.getName(), matchesPattern("\\[EXAMPLE:\\d+:\\d+]")));
+	}
+
+	@Test
+	public void verify_example_rows_of_same_named_scenarios_reported_separately() {
+		run(format, SAME_NAME_STORY_PATH, new StockSteps(), new ParameterizedSteps());
+
+		ArgumentCaptor<StartTestItemRQ> exampleCaptor = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(client, times(2)).startTestItem(same(storyId), exampleCaptor.capture());
+		exampleIds.forEach(id -> verify(client, times(STEPS_QUANTITY)).startTestItem(same(id), any()));
+
+		assertThat(
+				exampleCaptor.getAllValues().stream().map(StartTestItemRQ::getCodeRef).collect(Collectors.toList()),
+				equalTo(SAME_NAME_EXAMPLE_CODE_REFS)
+		);
+
+		TestItemTree.TestItemLeaf story = format.getItemTree().getTestItems().values().iterator().next();
+		assertThat(story.getChildItems().keySet(), hasSize(2));
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import com.epam.reportportal.jbehave.integration.basic.EmptySteps;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.util.test.CommonUtils;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import jakarta.annotation.Nonnull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class EagerLaunchStartTest extends BaseTest {
+
+	private static final String STORY_PATH = "stories/NoScenario.story";
+
+	private final String storyId = CommonUtils.namedId("story_");
+	private final String scenarioId = CommonUtils.namedId("scenario_");
+	private final String stepId = CommonUtils.namedId("step_");
+
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+	private ExecutorService launchStarter;
+	private ReportPortalStepFormat format;
+
+	@BeforeEach
+	public void setupMock() {
+		mockLaunch(client, null, storyId, scenarioId, stepId);
+		mockBatchLogging(client);
+		JBehaveParameters agentParameters = new JBehaveParameters();
+		agentParameters.setLaunchEagerStart(true);
+		format = new ReportPortalStepFormat(ReportPortal.create(client, standardParameters(), testExecutor()), agentParameters) {
+			@Nonnull
+			@Override
+			protected ExecutorService createLaunchStarter() {
+				launchStarter = super.createLaunchStarter();
+				return launchStarter;
+			}
+		};
+	}
+
+	@Test
+	public void verify_launch_starts_before_stories_with_system_attributes() throws InterruptedException {
+		verifyNoInteractions(client);
+
+		format.startLaunchEagerly();
+		// The starter is shut down once the launch start is submitted, so it terminates when the start request is built
+		assertThat(launchStarter.awaitTermination(1, TimeUnit.MINUTES), equalTo(Boolean.TRUE));
+		format.getItemTree().getLaunchId().blockingGet();
+
+		ArgumentCaptor<StartLaunchRQ> startCaptor = ArgumentCaptor.forClass(StartLaunchRQ.class);
+		verify(client).startLaunch(startCaptor.capture());
+		verify(client, never()).startTestItem(any());
+
+		Set<String> attributes = startCaptor.getValue()
+				.getAttributes()
+				.stream()
+				.filter(ItemAttributesRQ::isSystem)
+				.map(e -> e.getKey() + ":" + e.getValue())
+				.collect(Collectors.toSet());
+		assertThat(attributes, hasSize(4));
+		assertThat(attributes, hasItem("agent:test-name|test-version"));
+		assertThat(attributes, hasItem(startsWith("os:")));
+
+		run(format, STORY_PATH, new EmptySteps());
+
+		verify(client, times(1)).startLaunch(any());
+		verify(client, times(1)).startTestItem(any());
+		verify(client, times(1)).startTestItem(same(storyId), any());
+		verify(client, times(1)).startTestItem(same(scenarioId), any());
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import com.epam.reportportal.jbehave.integration.basic.ParameterizedSteps;
+import com.epam.reportportal.jbehave.integration.basic.StockSteps;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.util.test.CommonUtils;
+import com.epam.ta.reportportal.ws.model.ParameterResource;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ExampleValueMaxLengthTest extends BaseTest {
+
+	public static final int STEPS_QUANTITY = 4;
+	private static final String STORY_PATH = "stories/Examples.story";
+
+	private final String storyId = CommonUtils.namedId("story_");
+	private final List<String> exampleIds = Stream.generate(() -> CommonUtils.namedId("example_")).limit(2).collect(Collectors.toList());
+	private final List<Pair<String, List<String>>> stepIds = exampleIds.stream()
+			.map(e -> Pair.of(e, Stream.generate(() -> CommonUtils.namedId("step_")).limit(STEPS_QUANTITY).collect(Collectors.toList())))
+			.collect(Collectors.toList());
+
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+	private final JBehaveParameters parameters = new JBehaveParameters();
+	private final ReportPortalStepFormat format = new ReportPortalStepFormat(
+			ReportPortal.create(client, standardParameters(), testExecutor()),
+			parameters
+	);
+
+	@BeforeEach
+	public void setupMock() {
+		mockLaunch(client, null, storyId, stepIds);
+		mockBatchLogging(client);
+		parameters.setExampleValueMaxLength(3);
+	}
+
+	private static List<Pair<String, String>> toPairs(List<ParameterResource> parameters) {
+		return parameters.stream().map(p -> Pair.of(p.getKey(), p.getValue())).collect(Collectors.toList());
+	}
+
+	@Test
+	public void verify_long_example_values_are_truncated() {
+		run(format, STORY_PATH, new StockSteps(), new ParameterizedSteps());
+
+		ArgumentCaptor<StartTestItemRQ> exampleCaptor = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(client, times(2)).startTestItem(same(storyId), exampleCaptor.capture());
+		StartTestItemRQ example = exampleCaptor.getAllValues().get(0);
+		assertThat(
+				toPairs(example.getParameters()),
+				contains(Pair.of("symbol", "STK..."), Pair.of("threshold", "10...."), Pair.of("price", "5.0"), Pair.of("status", "OFF"))
+		);
+		assertThat(example.getDescription(), allOf(containsString("STK..."), not(containsString("STK1$"))));
+
+		ArgumentCaptor<StartTestItemRQ> stepCaptor = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(client, times(STEPS_QUANTITY)).startTestItem(same(exampleIds.get(0)), stepCaptor.capture());
+		List<StartTestItemRQ> steps = stepCaptor.getAllValues();
+
+		StartTestItemRQ firstStep = steps.get(0);
+		assertThat(firstStep.getName(), equalTo("Given a stock of symbol STK1$ and a threshold 10.0"));
+		assertThat(toPairs(firstStep.getParameters()), contains(Pair.of("symbol", "STK..."), Pair.of("threshold", "10....")));
+		assertThat(firstStep.getTestCaseId(), endsWith("[STK1$,10.0]"));
+		assertThat(toPairs(steps.get(3).getParameters()), contains(Pair.of("symbol", "STK..."), Pair.of("symbol", "STK...")));
+	}
+
+	@Test
+	public void verify_each_request_gets_its_own_parameters() {
+		run(format, STORY_PATH, new StockSteps(), new ParameterizedSteps());
+
+		ArgumentCaptor<StartTestItemRQ> exampleCaptor = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(client, times(2)).startTestItem(same(storyId), exampleCaptor.capture());
+		ArgumentCaptor<StartTestItemRQ> stepCaptor = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(client, times(STEPS_QUANTITY)).startTestItem(same(exampleIds.get(0)), stepCaptor.capture());
+
+		List<ParameterResource> exampleParameters = exampleCaptor.getAllValues().get(0).getParameters();
+		List<ParameterResource> firstStepParameters = stepCaptor.getAllValues().get(0).getParameters();
+		List<ParameterResource> lastStepParameters = stepCaptor.getAllValues().get(3).getParameters();
+		assertThat(firstStepParameters.get(0).getKey(), equalTo("symbol"));
+		assertThat(firstStepParameters.get(0), not(sameInstance(exampleParameters.get(0))));
+		assertThat(lastStepParameters.get(0), not(sameInstance(firstStepParameters.get(0))));
+		assertThat(lastStepParameters.get(1), not(sameInstance(lastStepParameters.get(0))));
+	}
+}
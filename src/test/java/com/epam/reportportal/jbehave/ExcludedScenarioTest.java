@@ -0,0 +1,140 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import com.epam.reportportal.jbehave.integration.basic.EmptySteps;
+import com.epam.reportportal.listeners.ItemStatus;
+import com.epam.reportportal.listeners.ItemType;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.util.test.CommonUtils;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+import org.apache.commons.lang3.tuple.Pair;
+import org.jbehave.core.embedder.Embedder;
+import org.jbehave.core.model.*;
+import org.jbehave.core.parsers.RegexStoryParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+public class ExcludedScenarioTest extends BaseTest {
+
+	private static final String FILTER = "-skip";
+	private static final String SCENARIO_NAME = "An excluded scenario";
+	private static final List<String> STEPS = Arrays.asList("Given I have a parameter <param>", "Then I have a result <result>");
+
+	private final String storyId = CommonUtils.namedId("story_");
+	private final String scenarioId = CommonUtils.namedId("scenario_");
+	private final String stepId = CommonUtils.namedId("step_");
+	private final String excludedScenarioId = CommonUtils.namedId("scenario_");
+
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+	private final JBehaveParameters parameters = new JBehaveParameters();
+	private final ReportPortalStepFormat format = new ReportPortalStepFormat(
+			ReportPortal.create(client, standardParameters(), testExecutor()),
+			parameters
+	);
+
+	@BeforeEach
+	public void setupMock() {
+		mockLaunch(
+				client,
+				null,
+				storyId,
+				Arrays.asList(Pair.of(scenarioId, Collections.singletonList(stepId)), Pair.of(excludedScenarioId, Collections.emptyList()))
+		);
+		mockBatchLogging(client);
+		parameters.setExcludedScenarioAggregate(true);
+	}
+
+	private void reportExcludedScenario() {
+		ExamplesTable examples = new ExamplesTable("|param|result|\n|1|2|\n|3|4|\n|5|6|");
+		Scenario scenario = new Scenario(SCENARIO_NAME, new Meta(Collections.singletonList("skip")), GivenStories.EMPTY, examples, STEPS);
+		Story story = new Story("stories/Excluded.story", Collections.singletonList(scenario));
+		ReportPortalStoryReporter reporter = format.createReportPortalReporter(null, null);
+		reporter.beforeStory(story, false);
+		reporter.beforeScenario(scenario);
+		reporter.scenarioExcluded(scenario, FILTER);
+		reporter.afterStory(false);
+		format.finishLaunch();
+	}
+
+	@Test
+	public void verify_excluded_scenario_reported_as_single_item() {
+		reportExcludedScenario();
+
+		verify(client).startTestItem(any());
+		ArgumentCaptor<StartTestItemRQ> startCaptor = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(client).startTestItem(same(storyId), startCaptor.capture());
+		verify(client, never()).startTestItem(same(scenarioId), any());
+
+		StartTestItemRQ scenarioStart = startCaptor.getValue();
+		assertThat(scenarioStart.getName(), equalTo(SCENARIO_NAME));
+		assertThat(scenarioStart.getType(), equalTo(ItemType.SCENARIO.name()));
+		assertThat(scenarioStart.getDescription(), allOf(containsString(FILTER), containsString("Example rows: 3, steps: 2")));
+		Map<String, String> attributes = scenarioStart.getAttributes()
+				.stream()
+				.filter(a -> a.getKey() != null && a.getKey().startsWith("excluded."))
+				.collect(Collectors.toMap(ItemAttributesRQ::getKey, ItemAttributesRQ::getValue));
+		assertThat(attributes, allOf(hasEntry("excluded.filter", FILTER), hasEntry("excluded.rows", "3"), hasEntry("excluded.steps", "2")));
+		assertThat(scenarioStart.getAttributes(), hasItem(hasProperty("value", equalTo("skip"))));
+
+		ArgumentCaptor<FinishTestItemRQ> finishCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(client).finishTestItem(same(scenarioId), finishCaptor.capture());
+		verify(client).finishTestItem(same(storyId), finishCaptor.capture());
+		assertThat(finishCaptor.getAllValues().get(0).getStatus(), equalTo(ItemStatus.SKIPPED.name()));
+		assertThat(finishCaptor.getAllValues().get(1).getStatus(), equalTo(ItemStatus.SKIPPED.name()));
+	}
+
+	@Test
+	public void verify_excluded_scenario_reported_by_embedder_monitor() {
+		Embedder embedder = createEmbedder(getClass(), format, new RegexStoryParser(), 1, new EmptySteps());
+		embedder.useEmbedderMonitor(new ReportPortalEmbedderMonitor());
+		embedder.useMetaFilters(Collections.singletonList(FILTER));
+		embedder.runStoriesAsPaths(Collections.singletonList("stories/ExcludedScenario.story"));
+		format.finishLaunch();
+
+		ArgumentCaptor<StartTestItemRQ> startCaptor = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(client, times(2)).startTestItem(same(storyId), startCaptor.capture());
+		verify(client).startTestItem(same(scenarioId), any());
+		verify(client, never()).startTestItem(same(excludedScenarioId), any());
+
+		StartTestItemRQ scenarioStart = startCaptor.getAllValues().get(1);
+		assertThat(scenarioStart.getName(), equalTo(SCENARIO_NAME));
+		assertThat(scenarioStart.getDescription(), allOf(containsString(FILTER), containsString("Example rows: 3, steps: 2")));
+
+		ArgumentCaptor<FinishTestItemRQ> finishCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(client).finishTestItem(same(scenarioId), finishCaptor.capture());
+		verify(client).finishTestItem(same(excludedScenarioId), finishCaptor.capture());
+		assertThat(finishCaptor.getAllValues().get(0).getStatus(), equalTo(ItemStatus.PASSED.name()));
+		assertThat(finishCaptor.getAllValues().get(1).getStatus(), equalTo(ItemStatus.SKIPPED.name()));
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import com.epam.reportportal.jbehave.integration.basic.EmptySteps;
+import com.epam.reportportal.jbehave.integration.basic.FailedSteps;
+import com.epam.reportportal.listeners.ItemStatus;
+import com.epam.reportportal.listeners.LogLevel;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.util.test.CommonUtils;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import okhttp3.MultipartBody;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+public class FailureDetailReportingTest extends BaseTest {
+
+	private static final String STORY_PATH = "stories/status/PassedFailedScenarios.story";
+
+	private final String storyId = CommonUtils.namedId("story_");
+	private final String passedScenarioId = CommonUtils.namedId("scenario_");
+	private final String failedScenarioId = CommonUtils.namedId("scenario_");
+	private final List<String> stepIds = Stream.generate(() -> CommonUtils.namedId("step_")).limit(2).collect(Collectors.toList());
+
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+	private final JBehaveParameters parameters = new JBehaveParameters();
+	private final ReportPortalStepFormat format = new ReportPortalStepFormat(
+			ReportPortal.create(client, standardParameters(), testExecutor()),
+			parameters
+	);
+
+	@BeforeEach
+	public void setupMock() {
+		mockLaunch(
+				client,
+				null,
+				storyId,
+				Arrays.asList(Pair.of(passedScenarioId, Collections.<String>emptyList()), Pair.of(failedScenarioId, stepIds))
+		);
+		mockBatchLogging(client);
+		parameters.setScenarioReporting(ReportPortalStoryReporter.ScenarioReporting.FAILURE_DETAIL);
+	}
+
+	private static long millis(Object time) {
+		return time instanceof Date ? ((Date) time).getTime() : ((Instant) time).toEpochMilli();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void verify_only_failed_scenario_details_reported() {
+		run(format, STORY_PATH, new EmptySteps(), new FailedSteps());
+		format.finishLaunch();
+
+		ArgumentCaptor<StartTestItemRQ> scenarioCaptor = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(client, times(2)).startTestItem(same(storyId), scenarioCaptor.capture());
+		verify(client, never()).startTestItem(same(passedScenarioId), any());
+		verify(client, times(2)).startTestItem(same(failedScenarioId), any());
+
+		ArgumentCaptor<FinishTestItemRQ> finishCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(client).finishTestItem(same(passedScenarioId), finishCaptor.capture());
+		verify(client).finishTestItem(same(stepIds.get(0)), finishCaptor.capture());
+		verify(client).finishTestItem(same(stepIds.get(1)), finishCaptor.capture());
+		verify(client).finishTestItem(same(failedScenarioId), finishCaptor.capture());
+		verify(client).finishTestItem(same(storyId), finishCaptor.capture());
+
+		List<FinishTestItemRQ> finishItems = finishCaptor.getAllValues();
+		assertThat(
+				finishItems.stream().map(FinishTestItemRQ::getStatus).collect(Collectors.toList()),
+				contains(
+						ItemStatus.PASSED.name(),
+						ItemStatus.PASSED.name(),
+						ItemStatus.FAILED.name(),
+						ItemStatus.FAILED.name(),
+						ItemStatus.FAILED.name()
+				)
+		);
+		// The passed scenario keeps its duration
+		StartTestItemRQ passedScenarioStart = scenarioCaptor.getAllValues().get(0);
+		assertThat(millis(finishItems.get(0).getEndTime()), greaterThanOrEqualTo(millis(passedScenarioStart.getStartTime())));
+		// Original timestamps are kept for the replayed failed scenario
+		StartTestItemRQ failedScenarioStart = scenarioCaptor.getAllValues().get(1);
+		assertThat(millis(failedScenarioStart.getStartTime()), greaterThanOrEqualTo(millis(finishItems.get(0).getEndTime())));
+
+		ArgumentCaptor<List<MultipartBody.Part>> logCaptor = ArgumentCaptor.forClass(List.class);
+		verify(client, atLeast(1)).log(logCaptor.capture());
+		verifyLogged(logCaptor, stepIds.get(1), LogLevel.ERROR, "java.lang.IllegalStateException");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void verify_logs_of_failed_step_code_are_attached_to_the_step() {
+		run(format, STORY_PATH, new EmptySteps(), new FailedSteps());
+		format.finishLaunch();
+
+		ArgumentCaptor<List<MultipartBody.Part>> logCaptor = ArgumentCaptor.forClass(List.class);
+		verify(client, atLeast(1)).log(logCaptor.capture());
+		verifyLogged(logCaptor, stepIds.get(1), LogLevel.INFO, "Inside 'I have a failed step'");
+	}
+}
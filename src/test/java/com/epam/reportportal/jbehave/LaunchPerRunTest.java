@@ -0,0 +1,92 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import com.epam.reportportal.jbehave.integration.basic.EmptySteps;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.util.test.CommonUtils;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+public class LaunchPerRunTest extends BaseTest {
+
+	private static final String STORY_PATH = "stories/NoScenario.story";
+
+	private final String launchId = CommonUtils.namedId("launch_");
+	private final String storyId = CommonUtils.namedId("story_");
+	private final String scenarioId = CommonUtils.namedId("scenario_");
+	private final String stepId = CommonUtils.namedId("step_");
+
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+
+	private ReportPortalScenarioFormat createFormat(boolean launchPerRun) {
+		mockLaunch(client, launchId, storyId, scenarioId, stepId);
+		mockBatchLogging(client);
+		JBehaveParameters agentParameters = new JBehaveParameters();
+		agentParameters.setLaunchPerRun(launchPerRun);
+		return new ReportPortalScenarioFormat(ReportPortal.create(client, standardParameters(), testExecutor()), agentParameters);
+	}
+
+	@Test
+	public void verify_each_run_is_reported_as_a_separate_launch() {
+		ReportPortalScenarioFormat format = createFormat(true);
+
+		run(format, STORY_PATH, new EmptySteps());
+
+		verify(client, times(1)).startLaunch(any());
+		verify(client, times(1)).finishLaunch(same(launchId), any());
+		assertThat(format.getItemTree().getTestItems().entrySet(), empty());
+
+		run(format, STORY_PATH, new EmptySteps());
+
+		ArgumentCaptor<StartLaunchRQ> startCaptor = ArgumentCaptor.forClass(StartLaunchRQ.class);
+		verify(client, times(2)).startLaunch(startCaptor.capture());
+		verify(client, times(2)).finishLaunch(same(launchId), any());
+		verify(client, times(2)).startTestItem(same(storyId), any());
+		assertThat(format.getItemTree().getTestItems().entrySet(), empty());
+
+		List<StartLaunchRQ> launches = startCaptor.getAllValues();
+		assertThat(launches.get(1).getStartTime(), not(equalTo(launches.get(0).getStartTime())));
+
+		format.finishLaunch();
+		verify(client, times(2)).finishLaunch(same(launchId), any());
+	}
+
+	@Test
+	public void verify_launch_is_not_finished_after_run_by_default() {
+		ReportPortalScenarioFormat format = createFormat(false);
+
+		run(format, STORY_PATH, new EmptySteps());
+		run(format, STORY_PATH, new EmptySteps());
+
+		verify(client, times(1)).startLaunch(any());
+		verify(client, never()).finishLaunch(any(), any());
+
+		format.finishLaunch();
+		verify(client, times(1)).finishLaunch(same(launchId), any());
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import com.epam.reportportal.jbehave.integration.basic.EmptySteps;
+import com.epam.reportportal.listeners.ListenerParameters;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.Launch;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.util.test.CommonUtils;
+import com.epam.reportportal.utils.MemoizingSupplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class LazyClientTest extends BaseTest {
+
+	private static final String STORY_PATH = "stories/NoScenario.story";
+
+	private final String storyId = CommonUtils.namedId("story_");
+	private final String scenarioId = CommonUtils.namedId("scenario_");
+	private final String stepId = CommonUtils.namedId("step_");
+
+	private final ListenerParameters params = standardParameters();
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+	private final ExecutorService executorService = testExecutor();
+	private final ReportPortal reportPortal = ReportPortal.create(client, params, executorService);
+	private final AtomicInteger clientCreations = new AtomicInteger();
+	private final ReportPortalScenarioFormat format = new ReportPortalScenarioFormat(() -> {
+		clientCreations.incrementAndGet();
+		return reportPortal;
+	});
+
+	@BeforeEach
+	public void setup() {
+		mockLaunch(client, null, storyId, scenarioId, stepId);
+		mockBatchLogging(client);
+	}
+
+	@Test
+	public void verify_client_is_not_created_until_first_use() {
+		assertThat(clientCreations.get(), equalTo(0));
+		verifyNoInteractions(client);
+
+		assertThat(format.getReportPortal(), sameInstance(reportPortal));
+		assertThat(format.getReportPortal(), sameInstance(reportPortal));
+		assertThat(clientCreations.get(), equalTo(1));
+	}
+
+	@Test
+	public void verify_lazy_client_reports_stories() {
+		run(format, STORY_PATH, new EmptySteps());
+
+		assertThat(clientCreations.get(), equalTo(1));
+		verify(client, times(1)).startLaunch(any());
+		verify(client, times(1)).startTestItem(any());
+		verify(client, times(1)).startTestItem(same(storyId), any());
+		verify(client, times(1)).startTestItem(same(scenarioId), any());
+	}
+
+	@Test
+	public void verify_launch_is_created_with_given_client_for_eager_format() {
+		AtomicReference<ReportPortal> launchClient = new AtomicReference<>();
+		ReportPortalScenarioFormat eagerFormat = new ReportPortalScenarioFormat(reportPortal) {
+			@Override
+			protected MemoizingSupplier<Launch> createLaunch(ReportPortal rp) {
+				launchClient.set(rp);
+				return super.createLaunch(rp);
+			}
+		};
+
+		assertThat(launchClient.get(), sameInstance(reportPortal));
+		assertThat(eagerFormat.rp, sameInstance(reportPortal));
+		assertThat(format.rp, nullValue());
+	}
+}
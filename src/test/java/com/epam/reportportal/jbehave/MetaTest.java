@@ -23,6 +23,10 @@ import com.epam.reportportal.util.test.CommonUtils;
 import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
 import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
 import org.apache.commons.lang3.tuple.Pair;
+import org.jbehave.core.model.ExamplesTable;
+import org.jbehave.core.model.GivenStories;
+import org.jbehave.core.model.Meta;
+import org.jbehave.core.model.Scenario;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -30,6 +34,7 @@ import org.mockito.ArgumentCaptor;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -91,4 +96,44 @@ public class MetaTest extends BaseTest {
 		scenarioAttributes.forEach(a -> assertThat(SCENARIO_ATTRIBUTES, hasItem(Pair.of(a.getKey(), a.getValue()))));
 	}
 
+	@Test
+	public void verify_meta_attributes_can_be_modified_in_each_request() {
+		ReportPortalStoryReporter reporter = format.createReportPortalReporter(null, null);
+		Scenario scenario = new Scenario(
+				"Scenario with meta",
+				new Meta(List.of("layer api", "smoke")),
+				GivenStories.EMPTY,
+				ExamplesTable.EMPTY,
+				List.of()
+		);
+
+		StartTestItemRQ first = reporter.buildStartScenarioRq(scenario, STORY_PATH, null);
+		first.getAttributes().add(new ItemAttributesRQ("key", "value"));
+		StartTestItemRQ second = reporter.buildStartScenarioRq(scenario, STORY_PATH, null);
+
+		assertThat(first.getAttributes(), hasSize(3));
+		assertThat(
+				second.getAttributes().stream().map(a -> Pair.of(a.getKey(), a.getValue())).collect(Collectors.toSet()),
+				containsInAnyOrder(Pair.of("layer", "api"), Pair.of(null, "smoke"))
+		);
+	}
+
+	@Test
+	public void verify_equal_metas_give_equal_attributes_in_new_objects() {
+		ReportPortalStoryReporter reporter = format.createReportPortalReporter(null, null);
+
+		Set<ItemAttributesRQ> first = reporter.getAttributes(new Meta(List.of("layer api", "team payments", "smoke")));
+		Set<ItemAttributesRQ> second = reporter.getAttributes(new Meta(List.of("layer api", "team payments", "smoke")));
+
+		assertThat(second, not(sameInstance(first)));
+		first.forEach(a -> assertThat(second, everyItem(not(sameInstance(a)))));
+		assertThat(
+				second.stream().map(a -> Pair.of(a.getKey(), a.getValue())).collect(Collectors.toSet()),
+				equalTo(first.stream().map(a -> Pair.of(a.getKey(), a.getValue())).collect(Collectors.toSet()))
+		);
+		assertThat(
+				first.stream().map(a -> Pair.of(a.getKey(), a.getValue())).collect(Collectors.toSet()),
+				containsInAnyOrder(Pair.of("layer", "api"), Pair.of("team", "payments"), Pair.of(null, "smoke"))
+		);
+	}
 }
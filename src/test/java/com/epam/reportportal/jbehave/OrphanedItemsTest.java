@@ -0,0 +1,92 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import com.epam.reportportal.jbehave.integration.basic.EmptySteps;
+import com.epam.reportportal.listeners.ItemStatus;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.util.test.CommonUtils;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import org.jbehave.core.model.Scenario;
+import org.jbehave.core.model.Step;
+import org.jbehave.core.model.Story;
+import org.jbehave.core.steps.StepCreator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+public class OrphanedItemsTest extends BaseTest {
+
+	private static final String STEP = "Given I have empty step";
+
+	private final String storyId = CommonUtils.namedId("story_");
+	private final String scenarioId = CommonUtils.namedId("scenario_");
+	private final String stepId = CommonUtils.namedId("step_");
+
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+	private final ReportPortalStepFormat format = new ReportPortalStepFormat(
+			ReportPortal.create(client, standardParameters(), testExecutor()),
+			new JBehaveParameters()
+	);
+
+	@BeforeEach
+	public void setupMock() {
+		mockLaunch(client, null, storyId, scenarioId, stepId);
+		mockBatchLogging(client);
+	}
+
+	@Test
+	public void verify_unfinished_items_are_finished_as_interrupted() {
+		Scenario scenario = new Scenario("A hung scenario", Collections.singletonList(STEP));
+		Story story = new Story("stories/Hung.story", Collections.singletonList(scenario));
+		ReportPortalStoryReporter reporter = format.createReportPortalReporter(null, null);
+		reporter.beforeStory(story, false);
+		reporter.beforeScenario(scenario);
+		reporter.beforeStep(new Step(StepCreator.StepExecutionType.EXECUTABLE, STEP));
+
+		format.finishLaunch();
+
+		ArgumentCaptor<FinishTestItemRQ> finishCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		InOrder order = inOrder(client);
+		order.verify(client).finishTestItem(same(stepId), finishCaptor.capture());
+		order.verify(client).finishTestItem(same(scenarioId), finishCaptor.capture());
+		order.verify(client).finishTestItem(same(storyId), finishCaptor.capture());
+		order.verify(client).finishLaunch(any(), any());
+		finishCaptor.getAllValues().forEach(rq -> assertThat(rq.getStatus(), equalTo(ItemStatus.INTERRUPTED.name())));
+	}
+
+	@Test
+	public void verify_finished_items_are_not_finished_again() {
+		run(format, "stories/NoScenario.story", new EmptySteps());
+
+		format.finishLaunch();
+
+		verify(client, times(1)).finishTestItem(same(stepId), any());
+		verify(client, times(1)).finishTestItem(same(scenarioId), any());
+		verify(client, times(1)).finishTestItem(same(storyId), any());
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import com.epam.reportportal.jbehave.integration.basic.EmptySteps;
+import com.epam.reportportal.jbehave.integration.basic.StockSteps;
+import com.epam.reportportal.jbehave.integration.lifecycle.AfterStoriesFailedSteps;
+import com.epam.reportportal.jbehave.integration.lifecycle.BeforeStoriesFailedSteps;
+import com.epam.reportportal.jbehave.util.ItemTreeUtils;
+import com.epam.reportportal.listeners.ItemType;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.service.tree.TestItemTree;
+import com.epam.reportportal.util.test.CommonUtils;
+import com.epam.ta.reportportal.ws.model.OperationCompletionRS;
+import com.epam.ta.reportportal.ws.model.item.ItemCreatedRS;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRS;
+import io.reactivex.Maybe;
+import org.jbehave.core.parsers.RegexStoryParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ParallelStoriesTest extends BaseTest {
+
+	private static final int THREADS = 4;
+	private static final List<String> STORIES = Arrays.asList(
+			"stories/DummyScenario.story",
+			"stories/NoScenario.story",
+			"stories/TwoScenarios.story",
+			"stories/Examples.story"
+	);
+	private static final String BEFORE_STORIES = "BeforeStories";
+	private static final String AFTER_STORIES = "AfterStories";
+
+	private final Set<String> startedItems = Collections.synchronizedSet(new HashSet<>());
+
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+	private final ReportPortalScenarioFormat format = new ReportPortalScenarioFormat(ReportPortal.create(
+			client,
+			standardParameters(),
+			testExecutor()
+	));
+
+	private Maybe<ItemCreatedRS> startItem() {
+		String id = CommonUtils.namedId("item_");
+		startedItems.add(id);
+		return Maybe.just(new ItemCreatedRS(id, id));
+	}
+
+	@BeforeEach
+	public void setupMock() {
+		when(client.startLaunch(any())).thenReturn(Maybe.just(new StartLaunchRS(CommonUtils.namedId("launch_"), 1L)));
+		when(client.finishLaunch(anyString(), any())).thenReturn(Maybe.just(new OperationCompletionRS()));
+		when(client.startTestItem(any())).thenAnswer(invocation -> startItem());
+		when(client.startTestItem(anyString(), any())).thenAnswer(invocation -> startItem());
+		when(client.finishTestItem(anyString(), any())).thenReturn(Maybe.just(new OperationCompletionRS()));
+		mockBatchLogging(client);
+	}
+
+	@Test
+	public void verify_parallel_stories_reporting() {
+		runParallel(
+				getClass(),
+				format,
+				STORIES,
+				new RegexStoryParser(),
+				THREADS,
+				new BeforeStoriesFailedSteps(),
+				new AfterStoriesFailedSteps(),
+				new EmptySteps(),
+				new StockSteps()
+		);
+
+		Map<TestItemTree.ItemTreeKey, TestItemTree.TestItemLeaf> topItems = format.getItemTree().getTestItems();
+		assertThat(topItems.entrySet(), hasSize(STORIES.size() + 2));
+		STORIES.forEach(s -> {
+			TestItemTree.TestItemLeaf story = topItems.get(TestItemTree.ItemTreeKey.of(s));
+			assertThat(story, notNullValue());
+			assertThat(story.getType(), equalTo(ItemType.STORY));
+			assertThat(story.getChildItems().entrySet(), not(empty()));
+		});
+
+		TestItemTree.TestItemLeaf beforeStories = topItems.get(ItemTreeUtils.createKey(BEFORE_STORIES));
+		assertThat(beforeStories.getChildItems().values(), hasSize(1));
+		assertThat(beforeStories.getChildItems().values().iterator().next().getType(), equalTo(ItemType.BEFORE_GROUPS));
+
+		TestItemTree.TestItemLeaf afterStories = topItems.get(ItemTreeUtils.createKey(AFTER_STORIES));
+		assertThat(afterStories.getChildItems().values(), hasSize(1));
+		assertThat(afterStories.getChildItems().values().iterator().next().getType(), equalTo(ItemType.AFTER_GROUPS));
+
+		ArgumentCaptor<String> finishCaptor = ArgumentCaptor.forClass(String.class);
+		verify(client, timeout(10000).times(startedItems.size())).finishTestItem(finishCaptor.capture(), any());
+		Set<String> finishedItems = new HashSet<>(finishCaptor.getAllValues());
+		assertThat(finishedItems, equalTo(new HashSet<>(startedItems)));
+		assertThat(
+				finishCaptor.getAllValues().stream().collect(Collectors.groupingBy(id -> id, Collectors.counting())).values(),
+				everyItem(equalTo(1L))
+		);
+	}
+}
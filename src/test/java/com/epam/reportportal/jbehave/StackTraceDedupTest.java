@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import com.epam.reportportal.jbehave.integration.basic.FailedSteps;
+import com.epam.reportportal.listeners.LogLevel;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.util.test.CommonUtils;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import okhttp3.MultipartBody;
+import org.jbehave.core.failures.UUIDExceptionWrapper;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class StackTraceDedupTest extends BaseTest {
+
+	private static final String STORY_PATH = "stories/status/FailedExamples.story";
+	private static final String ERROR_HEADER = "java.lang.IllegalStateException: " + FailedSteps.ERROR_MESSAGE;
+
+	private final String storyId = CommonUtils.namedId("story_");
+	private final List<Pair<String, List<String>>> exampleSteps = Stream.generate(() -> Pair.of(
+			CommonUtils.namedId("example_"),
+			Collections.singletonList(CommonUtils.namedId("step_"))
+	)).limit(3).collect(Collectors.toList());
+	private final List<String> stepIds = exampleSteps.stream().map(p -> p.getValue().get(0)).collect(Collectors.toList());
+
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+
+	@BeforeEach
+	public void setupMock() {
+		mockLaunch(client, null, storyId, exampleSteps);
+		mockBatchLogging(client);
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<SaveLogRQ> getErrorLogs() {
+		ArgumentCaptor<List<MultipartBody.Part>> logCaptor = ArgumentCaptor.forClass(List.class);
+		verify(client, atLeast(1)).log(logCaptor.capture());
+		return filterLogs(logCaptor, l -> LogLevel.ERROR.name().equals(l.getLevel()));
+	}
+
+	@Test
+	public void verify_same_stack_trace_is_reported_once_per_launch() {
+		JBehaveParameters parameters = new JBehaveParameters();
+		parameters.setStackTraceDedup(true);
+		ReportPortalStepFormat format = new ReportPortalStepFormat(
+				ReportPortal.create(client, standardParameters(), testExecutor()),
+				parameters
+		);
+
+		run(format, STORY_PATH, new FailedSteps());
+		format.finishLaunch();
+
+		List<SaveLogRQ> logs = getErrorLogs();
+		assertThat(logs, hasSize(3));
+		assertThat(logs.stream().map(SaveLogRQ::getItemUuid).collect(Collectors.toList()), contains(stepIds.toArray()));
+
+		SaveLogRQ first = logs.get(0);
+		assertThat(first.getMessage(), containsString(ERROR_HEADER));
+		assertThat(first.getMessage(), containsString("\tat "));
+		String hash = first.getMessage().substring(first.getMessage().lastIndexOf(' ') + 1);
+
+		logs.subList(1, logs.size()).forEach(l -> {
+			assertThat(l.getMessage(), startsWith(UUIDExceptionWrapper.class.getName()));
+			assertThat(l.getMessage(), containsString("Caused by: " + ERROR_HEADER));
+			assertThat(l.getMessage(), not(containsString("\tat ")));
+			assertThat(l.getMessage(), containsString(hash));
+			assertThat(l.getMessage(), endsWith(stepIds.get(0)));
+		});
+	}
+
+	@Test
+	public void verify_stack_traces_are_reported_in_full_by_default() {
+		ReportPortalStepFormat format = new ReportPortalStepFormat(ReportPortal.create(client, standardParameters(), testExecutor()));
+
+		run(format, STORY_PATH, new FailedSteps());
+		format.finishLaunch();
+
+		List<SaveLogRQ> logs = getErrorLogs();
+		assertThat(logs, hasSize(3));
+		logs.forEach(l -> assertThat(l.getMessage(), containsString("\tat ")));
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import com.epam.reportportal.jbehave.integration.basic.EmptySteps;
+import com.epam.reportportal.listeners.ItemType;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.service.tree.TestItemTree;
+import com.epam.reportportal.util.test.CommonUtils;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+
+public class TreeCompactStepsTest extends BaseTest {
+
+	private static final String STORY_PATH = "stories/NoScenario.story";
+	private static final String STEP_CODE_REF = STORY_PATH + String.format(SCENARIO_PATTERN, "No name") + String.format(
+			STEP_PATTERN,
+			"Given I have empty step"
+	);
+
+	private final String storyId = CommonUtils.namedId("story_");
+	private final String scenarioId = CommonUtils.namedId("scenario_");
+	private final String stepId = CommonUtils.namedId("step_");
+
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+	private final JBehaveParameters parameters = new JBehaveParameters();
+	private final ReportPortalStepFormat format = new ReportPortalStepFormat(
+			ReportPortal.create(client, standardParameters(), testExecutor()),
+			parameters
+	);
+
+	@BeforeEach
+	public void setupMock() {
+		mockLaunch(client, null, storyId, scenarioId, stepId);
+		mockBatchLogging(client);
+	}
+
+	private TestItemTree.TestItemLeaf getStep() {
+		TestItemTree.TestItemLeaf story = format.getItemTree().getTestItems().values().iterator().next();
+		TestItemTree.TestItemLeaf scenario = story.getChildItems().values().iterator().next();
+		TestItemTree.TestItemLeaf step = scenario.getChildItems().values().iterator().next();
+		assertThat(step.getType(), equalTo(ItemType.STEP));
+		return step;
+	}
+
+	@Test
+	public void verify_step_leaves_keep_start_requests_and_code_references_by_default() {
+		run(format, STORY_PATH, new EmptySteps());
+
+		TestItemTree.TestItemLeaf step = getStep();
+		assertThat(step.getAttribute(ReportPortalStoryReporter.CODE_REF), equalTo(STEP_CODE_REF));
+		StartTestItemRQ rq = step.getAttribute(ReportPortalStoryReporter.START_REQUEST);
+		assertThat(rq, notNullValue());
+		assertThat(rq.getCodeRef(), equalTo(STEP_CODE_REF));
+	}
+
+	@Test
+	public void verify_compact_step_leaves_do_not_keep_start_requests_and_code_references() {
+		parameters.setTreeCompactSteps(true);
+		run(format, STORY_PATH, new EmptySteps());
+
+		TestItemTree.TestItemLeaf step = getStep();
+		assertThat(step.getAttribute(ReportPortalStoryReporter.CODE_REF), nullValue());
+		assertThat(step.getAttribute(ReportPortalStoryReporter.START_REQUEST), nullValue());
+		TestItemTree.TestItemLeaf scenario = step.getAttribute(ReportPortalStoryReporter.PARENT);
+		assertThat(scenario.getAttribute(ReportPortalStoryReporter.CODE_REF), instanceOf(String.class));
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave;
+
+import com.epam.reportportal.jbehave.integration.basic.EmptySteps;
+import com.epam.reportportal.listeners.ItemStatus;
+import com.epam.reportportal.listeners.ItemType;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.service.tree.TestItemTree;
+import com.epam.reportportal.util.test.CommonUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+
+public class TreePruneTest extends BaseTest {
+
+	private static final String STORY_PATH = "stories/DummyScenario.story";
+
+	private final String storyId = CommonUtils.namedId("story_");
+	private final String scenarioId = CommonUtils.namedId("scenario_");
+	private final List<String> stepIds = Stream.generate(() -> CommonUtils.namedId("step_")).limit(2).collect(Collectors.toList());
+
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+	private final ReportPortalScenarioFormat format = new ReportPortalScenarioFormat(
+			ReportPortal.create(client, standardParameters(), testExecutor()),
+			pruneParameters()
+	);
+
+	private static JBehaveParameters pruneParameters() {
+		JBehaveParameters parameters = new JBehaveParameters();
+		parameters.setTreePrune(true);
+		return parameters;
+	}
+
+	@BeforeEach
+	public void setupMock() {
+		mockLaunch(client, null, storyId, scenarioId, stepIds);
+		mockBatchLogging(client);
+	}
+
+	@Test
+	public void verify_finished_story_replaced_with_summary() {
+		run(format, STORY_PATH, new EmptySteps());
+
+		TestItemTree.ItemTreeKey storyKey = TestItemTree.ItemTreeKey.of(STORY_PATH);
+		assertThat(format.getItemTree().getTestItems().keySet(), contains(storyKey));
+		await().atMost(Duration.ofSeconds(10))
+				.until(() -> format.getItemTree().getTestItems().get(storyKey).getAttribute(ReportPortalStoryReporter.START_REQUEST) == null);
+
+		TestItemTree.TestItemLeaf story = format.getItemTree().getTestItems().get(storyKey);
+		assertThat(story.getChildItems().entrySet(), empty());
+		assertThat(story.getAttributes().keySet(), contains(ReportPortalStoryReporter.CODE_REF));
+		assertThat(story.getAttribute(ReportPortalStoryReporter.CODE_REF), hasToString(STORY_PATH));
+		assertThat(story.getType(), equalTo(ItemType.STORY));
+		assertThat(story.getStatus(), equalTo(ItemStatus.PASSED));
+		assertThat(story.getItemId().blockingGet(), equalTo(storyId));
+		assertThat(story.getFinishResponse(), notNullValue());
+	}
+}
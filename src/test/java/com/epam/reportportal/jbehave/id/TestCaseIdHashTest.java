@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.id;
+
+import com.epam.reportportal.jbehave.BaseTest;
+import com.epam.reportportal.jbehave.JBehaveParameters;
+import com.epam.reportportal.jbehave.ReportPortalStepFormat;
+import com.epam.reportportal.jbehave.ReportPortalStoryReporter;
+import com.epam.reportportal.jbehave.integration.basic.StockSteps;
+import com.epam.reportportal.jbehave.util.TestCaseIdHash;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.util.test.CommonUtils;
+import com.epam.ta.reportportal.ws.model.ParameterResource;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+public class TestCaseIdHashTest extends BaseTest {
+
+	public static final int STEPS_QUANTITY = 4;
+	private final String storyId = CommonUtils.namedId("story_");
+	private final List<String> scenarioIds = Stream.generate(() -> CommonUtils.namedId("scenario_")).limit(2).collect(Collectors.toList());
+
+	private final List<Pair<String, List<String>>> stepIds = scenarioIds.stream()
+			.map(e -> Pair.of(e, Stream.generate(() -> CommonUtils.namedId("step_")).limit(STEPS_QUANTITY).collect(Collectors.toList())))
+			.collect(Collectors.toList());
+
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+	private final JBehaveParameters parameters = new JBehaveParameters();
+	private final ReportPortalStepFormat format = new ReportPortalStepFormat(
+			ReportPortal.create(client, standardParameters(), testExecutor()),
+			parameters
+	);
+
+	@BeforeEach
+	public void setupMock() {
+		mockLaunch(client, null, storyId, stepIds);
+		mockBatchLogging(client);
+		parameters.setTestCaseIdStrategy(ReportPortalStoryReporter.TestCaseIdStrategy.HASH);
+	}
+
+	private static final String EXAMPLES_STORY = "stories/Examples.story";
+
+	@Test
+	public void verify_test_case_id_hash_with_examples() {
+		run(format, EXAMPLES_STORY, new StockSteps());
+
+		ArgumentCaptor<StartTestItemRQ> startCaptor = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(client, times(STEPS_QUANTITY)).startTestItem(same(scenarioIds.get(0)), startCaptor.capture());
+		verify(client, times(STEPS_QUANTITY)).startTestItem(same(scenarioIds.get(1)), startCaptor.capture());
+
+		List<StartTestItemRQ> steps = startCaptor.getAllValues();
+		steps.forEach(rq -> assertThat(
+				rq.getTestCaseId(),
+				equalTo(TestCaseIdHash.hash(
+						rq.getCodeRef(),
+						rq.getParameters().stream().map(ParameterResource::getValue).collect(Collectors.toList())
+				))
+		));
+		List<String> ids = steps.stream().map(StartTestItemRQ::getTestCaseId).collect(Collectors.toList());
+		ids.forEach(id -> assertThat(id, matchesPattern("[0-9a-f]{16}")));
+		assertThat(ids.stream().distinct().count(), equalTo((long) ids.size()));
+	}
+
+	@Test
+	public void verify_test_case_id_hash_is_stable() {
+		List<String> params = List.of("STK1$", "10.0");
+		String codeRef = EXAMPLES_STORY + "/[SCENARIO:Stock trade alert]";
+		assertThat(TestCaseIdHash.hash(codeRef, params), equalTo(TestCaseIdHash.hash(codeRef, List.of("STK1$", "10.0"))));
+		assertThat(TestCaseIdHash.hash(codeRef, params), not(equalTo(TestCaseIdHash.hash(codeRef, List.of("STK1$10.0")))));
+		assertThat(TestCaseIdHash.hash(codeRef, null), not(equalTo(TestCaseIdHash.hash(codeRef, List.of()))));
+		assertThat(TestCaseIdHash.hash(null, null), equalTo("b9034ad37056f5fb"));
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.journal;
+
+import com.epam.reportportal.jbehave.BaseTest;
+import com.epam.reportportal.jbehave.JBehaveParameters;
+import com.epam.reportportal.jbehave.ReportPortalScenarioFormat;
+import com.epam.reportportal.jbehave.integration.basic.FailedSteps;
+import com.epam.reportportal.listeners.ItemStatus;
+import com.epam.reportportal.listeners.ItemType;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class JournalReportingTest extends BaseTest {
+
+	private static final String STORY_PATH = "stories/status/FailedScenario.story";
+
+	@TempDir
+	Path tempDir;
+
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+
+	private static class ShutdownHookFormat extends ReportPortalScenarioFormat {
+		private ShutdownHookFormat(ReportPortal reportPortal, JBehaveParameters parameters) {
+			super(reportPortal, parameters);
+		}
+
+		private Thread shutdownHook() {
+			return getShutdownHook();
+		}
+	}
+
+	private static List<JournalRecord> readAll(Path file) throws IOException {
+		List<JournalRecord> records = new ArrayList<>();
+		try (JournalReader reader = new JournalReader(file)) {
+			JournalRecord record;
+			while ((record = reader.next()) != null) {
+				records.add(record);
+			}
+		}
+		return records;
+	}
+
+	@Test
+	public void verify_reporting_into_journal() throws IOException {
+		Path journal = tempDir.resolve("launch.rpj");
+		JBehaveParameters parameters = new JBehaveParameters();
+		parameters.setJournalFile(journal);
+		ReportPortalScenarioFormat format = new ReportPortalScenarioFormat(
+				ReportPortal.create(client, standardParameters(), testExecutor()),
+				parameters
+		);
+
+		run(format, STORY_PATH, new FailedSteps());
+		format.finishLaunch();
+
+		verifyNoInteractions(client);
+		await().until(() -> readAll(journal).stream().anyMatch(r -> r.getType() == JournalRecord.Type.LAUNCH_FINISH));
+
+		List<JournalRecord> records = readAll(journal);
+		assertThat(records.get(0).getType(), equalTo(JournalRecord.Type.LAUNCH_START));
+
+		Map<String, JournalRecord> starts = new HashMap<>();
+		Set<String> finishes = new HashSet<>();
+		for (JournalRecord record : records) {
+			if (record.getType() == JournalRecord.Type.ITEM_START) {
+				assertThat(record.getParentId() == null || starts.containsKey(record.getParentId()), equalTo(Boolean.TRUE));
+				assertThat(record.getRequest(StartTestItemRQ.class).getUuid(), equalTo(record.getId()));
+				starts.put(record.getId(), record);
+			} else if (record.getType() == JournalRecord.Type.ITEM_FINISH) {
+				assertThat(starts.keySet(), hasItem(record.getId()));
+				finishes.add(record.getId());
+			}
+		}
+		assertThat(finishes, equalTo(starts.keySet()));
+
+		JournalRecord story = starts.values().stream().filter(r -> r.getParentId() == null).findAny().orElse(null);
+		assertThat(story, notNullValue());
+		assertThat(story.getRequest(StartTestItemRQ.class).getType(), equalTo(ItemType.STORY.name()));
+		FinishTestItemRQ storyFinish = null;
+		for (JournalRecord record : records) {
+			if (record.getType() == JournalRecord.Type.ITEM_FINISH && story.getId().equals(record.getId())) {
+				storyFinish = record.getRequest(FinishTestItemRQ.class);
+			}
+		}
+		assertThat(storyFinish, notNullValue());
+		assertThat(storyFinish.getStatus(), equalTo(ItemStatus.FAILED.name()));
+		assertThat(
+				records.stream().map(JournalRecord::getType).anyMatch(t -> t == JournalRecord.Type.LOG_BATCH),
+				equalTo(Boolean.TRUE)
+		);
+	}
+
+	@Test
+	public void verify_journal_is_closed_on_shutdown() throws IOException, InterruptedException {
+		Path journal = tempDir.resolve("shutdown.rpj");
+		JBehaveParameters parameters = new JBehaveParameters();
+		parameters.setJournalFile(journal);
+		ShutdownHookFormat format = new ShutdownHookFormat(ReportPortal.create(client, standardParameters(), testExecutor()), parameters);
+
+		run(format, STORY_PATH, new FailedSteps());
+		Thread hook = format.shutdownHook();
+		hook.start();
+		hook.join();
+
+		assertThat(readAll(journal).stream().map(JournalRecord::getType).collect(Collectors.toList()), hasItem(JournalRecord.Type.LAUNCH_FINISH));
+		long end;
+		try (JournalReader reader = new JournalReader(journal)) {
+			while (reader.next() != null) {
+				// read up to the last record
+			}
+			end = reader.getPosition();
+		}
+		// A closed journal is cut to its records
+		assertThat(Files.size(journal), equalTo(end));
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.journal;
+
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JournalTest {
+
+	@TempDir
+	Path tempDir;
+
+	private static List<JournalRecord> readAll(Path file) throws IOException {
+		List<JournalRecord> records = new ArrayList<>();
+		try (JournalReader reader = new JournalReader(file)) {
+			JournalRecord record;
+			while ((record = reader.next()) != null) {
+				records.add(record);
+			}
+		}
+		return records;
+	}
+
+	private static JournalRecord itemStart(String name) throws IOException {
+		StartTestItemRQ rq = new StartTestItemRQ();
+		rq.setName(name);
+		return JournalRecord.of(JournalRecord.Type.ITEM_START, name, null, rq);
+	}
+
+	@Test
+	public void verify_journal_records_are_read_in_order() throws IOException {
+		Path file = tempDir.resolve("journal.rpj");
+		// A small mapping size to make the writer remap the file
+		try (JournalWriter writer = new JournalWriter(file, 64)) {
+			for (int i = 0; i < 10; i++) {
+				writer.append(itemStart("item_" + i));
+			}
+			FinishTestItemRQ finish = new FinishTestItemRQ();
+			finish.setStatus("PASSED");
+			writer.append(JournalRecord.of(JournalRecord.Type.ITEM_FINISH, "item_0", null, finish));
+		}
+
+		List<JournalRecord> records = readAll(file);
+		assertThat(records, hasSize(11));
+		for (int i = 0; i < 10; i++) {
+			JournalRecord record = records.get(i);
+			assertThat(record.getType(), equalTo(JournalRecord.Type.ITEM_START));
+			assertThat(record.getId(), equalTo("item_" + i));
+			assertThat(record.getParentId(), nullValue());
+			assertThat(record.getRequest(StartTestItemRQ.class).getName(), equalTo("item_" + i));
+		}
+		assertThat(records.get(10).getType(), equalTo(JournalRecord.Type.ITEM_FINISH));
+		assertThat(records.get(10).getRequest(FinishTestItemRQ.class).getStatus(), equalTo("PASSED"));
+	}
+
+	@Test
+	public void verify_journal_partial_record_is_ignored_and_overwritten() throws IOException {
+		Path file = tempDir.resolve("crashed.rpj");
+		long validEnd;
+		try (JournalWriter writer = new JournalWriter(file)) {
+			writer.append(itemStart("first"));
+			writer.append(itemStart("second"));
+			validEnd = writer.getPosition();
+		}
+		// Simulate a record which was not completely written: a length is set, but the body is garbage
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			ByteBuffer partial = ByteBuffer.allocate(108).putInt(100).putInt(12345).put("garbage".getBytes(StandardCharsets.UTF_8));
+			partial.clear();
+			channel.write(partial, validEnd);
+		}
+
+		assertThat(readAll(file).stream().map(JournalRecord::getId).collect(Collectors.toList()), contains("first", "second"));
+
+		try (JournalWriter writer = new JournalWriter(file)) {
+			assertThat(writer.getPosition(), equalTo(validEnd));
+			writer.append(itemStart("third"));
+		}
+		assertThat(
+				readAll(file).stream().map(JournalRecord::getId).collect(Collectors.toList()),
+				contains("first", "second", "third")
+		);
+	}
+
+	@Test
+	public void verify_not_a_journal_file_is_rejected() throws IOException {
+		Path file = tempDir.resolve("text.txt");
+		Files.write(file, "just a text file".getBytes(StandardCharsets.UTF_8));
+
+		assertThrows(IOException.class, () -> new JournalReader(file).close());
+	}
+}
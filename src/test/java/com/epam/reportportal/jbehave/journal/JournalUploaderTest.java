@@ -0,0 +1,290 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.journal;
+
+import com.epam.reportportal.listeners.ListenerParameters;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.utils.http.HttpRequestUtils;
+import com.epam.ta.reportportal.ws.model.BatchSaveOperatingRS;
+import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.OperationCompletionRS;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.item.ItemCreatedRS;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRS;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import io.reactivex.Maybe;
+import okhttp3.MultipartBody;
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.epam.reportportal.jbehave.BaseTest.extractJsonParts;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class JournalUploaderTest {
+
+	private static final int STORIES = 3;
+	private static final int SCENARIOS = 2;
+	private static final int STEPS = 2;
+	private static final String FILE_CONTENT = "attachment content";
+
+	@TempDir
+	Path tempDir;
+
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+	private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+	private final Map<String, String> parents = new LinkedHashMap<>();
+	private final List<SaveLogRQ> writtenLogs = new ArrayList<>();
+	private int logBatches;
+
+	private void mockClient() {
+		when(client.startLaunch(any())).thenAnswer(a -> {
+			calls.add("launch_start");
+			return Maybe.just(new StartLaunchRS());
+		});
+		when(client.startTestItem(any())).thenAnswer(a -> {
+			calls.add("start:" + a.<StartTestItemRQ>getArgument(0).getUuid());
+			return Maybe.just(new ItemCreatedRS());
+		});
+		when(client.startTestItem(anyString(), any())).thenAnswer(a -> {
+			calls.add("start:" + a.<StartTestItemRQ>getArgument(1).getUuid());
+			return Maybe.just(new ItemCreatedRS());
+		});
+		when(client.finishTestItem(anyString(), any())).thenAnswer(a -> {
+			calls.add("finish:" + a.getArgument(0));
+			return Maybe.just(new OperationCompletionRS());
+		});
+		when(client.log(anyList())).thenReturn(Maybe.just(new BatchSaveOperatingRS()));
+		when(client.finishLaunch(anyString(), any())).thenAnswer(a -> {
+			calls.add("launch_finish");
+			return Maybe.just(new OperationCompletionRS());
+		});
+	}
+
+	private static SaveLogRQ log(String launchUuid, String itemUuid, String message) {
+		SaveLogRQ rq = new SaveLogRQ();
+		rq.setLaunchUuid(launchUuid);
+		rq.setItemUuid(itemUuid);
+		rq.setMessage(message);
+		rq.setLevel("INFO");
+		rq.setLogTime(Instant.now());
+		return rq;
+	}
+
+	private String startItem(JournalReportPortalClient journal, String parent, String name) {
+		StartTestItemRQ rq = new StartTestItemRQ();
+		rq.setName(name);
+		rq.setStartTime(Instant.now());
+		String id = (parent == null ? journal.startTestItem(rq) : journal.startTestItem(parent, rq)).blockingGet().getId();
+		parents.put(id, parent);
+		return id;
+	}
+
+	private void finishItem(JournalReportPortalClient journal, String id) {
+		FinishTestItemRQ rq = new FinishTestItemRQ();
+		rq.setEndTime(Instant.now());
+		rq.setStatus("PASSED");
+		journal.finishTestItem(id, rq).blockingGet();
+	}
+
+	private void writeLogs(JournalReportPortalClient journal, List<SaveLogRQ> logs) {
+		writtenLogs.addAll(logs);
+		logBatches++;
+		journal.log(HttpRequestUtils.buildLogMultiPartRequest(logs)).blockingGet();
+	}
+
+	/**
+	 * Writes a journal with several Stories, logs of different Stories are mixed in the same batches, as the client does.
+	 */
+	private Path writeJournal() throws IOException {
+		Path file = tempDir.resolve("upload.rpj");
+		try (JournalReportPortalClient journal = new JournalReportPortalClient(file)) {
+			StartLaunchRQ launchRq = new StartLaunchRQ();
+			launchRq.setName("Journal launch");
+			launchRq.setStartTime(Instant.now());
+			String launchUuid = journal.startLaunch(launchRq).blockingGet().getId();
+
+			List<String> stories = new ArrayList<>();
+			for (int i = 0; i < STORIES; i++) {
+				stories.add(startItem(journal, null, "Story " + i));
+			}
+			for (int i = 0; i < SCENARIOS; i++) {
+				List<SaveLogRQ> logs = new ArrayList<>();
+				Map<String, List<String>> steps = new LinkedHashMap<>();
+				for (String story : stories) {
+					String scenario = startItem(journal, story, "Scenario " + i);
+					List<String> scenarioSteps = new ArrayList<>();
+					for (int j = 0; j < STEPS; j++) {
+						String step = startItem(journal, scenario, "Step " + j);
+						logs.add(log(launchUuid, step, "Step log " + j));
+						scenarioSteps.add(step);
+					}
+					steps.put(scenario, scenarioSteps);
+				}
+				SaveLogRQ fileLog = log(launchUuid, stories.get(0), "File log " + i);
+				SaveLogRQ.File logFile = new SaveLogRQ.File();
+				logFile.setName("file_" + i + ".txt");
+				logFile.setContentType("text/plain");
+				logFile.setContent(FILE_CONTENT.getBytes(StandardCharsets.UTF_8));
+				fileLog.setFile(logFile);
+				logs.add(fileLog);
+				writeLogs(journal, logs);
+				for (Map.Entry<String, List<String>> scenario : steps.entrySet()) {
+					scenario.getValue().forEach(s -> finishItem(journal, s));
+					finishItem(journal, scenario.getKey());
+				}
+			}
+			writeLogs(journal, Collections.singletonList(log(launchUuid, null, "Launch log")));
+			stories.forEach(s -> finishItem(journal, s));
+
+			FinishExecutionRQ finishRq = new FinishExecutionRQ();
+			finishRq.setEndTime(Instant.now());
+			journal.finishLaunch(launchUuid, finishRq).blockingGet();
+		}
+		return file;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<List<MultipartBody.Part>> getLogRequests() {
+		ArgumentCaptor<List<MultipartBody.Part>> logCaptor = ArgumentCaptor.forClass(List.class);
+		verify(client, atLeastOnce()).log(logCaptor.capture());
+		return logCaptor.getAllValues();
+	}
+
+	@Test
+	public void verify_journal_upload_keeps_hierarchy_order_and_coalesces_logs() throws IOException, InterruptedException {
+		Path journal = writeJournal();
+		mockClient();
+		Path checkpoint = tempDir.resolve("upload.rpj.checkpoint");
+
+		try (JournalUploader uploader = new JournalUploader(client, new ListenerParameters(), 4)) {
+			uploader.upload(journal, checkpoint);
+			assertThat(uploader.getErrors(), equalTo(0));
+		}
+
+		assertThat(calls.get(0), equalTo("launch_start"));
+		assertThat(calls.get(calls.size() - 1), equalTo("launch_finish"));
+		for (Map.Entry<String, String> item : parents.entrySet()) {
+			int start = calls.indexOf("start:" + item.getKey());
+			int finish = calls.indexOf("finish:" + item.getKey());
+			assertThat(start, greaterThan(0));
+			assertThat(finish, greaterThan(start));
+			if (item.getValue() != null) {
+				assertThat(start, greaterThan(calls.indexOf("start:" + item.getValue())));
+				assertThat(finish, lessThan(calls.indexOf("finish:" + item.getValue())));
+			}
+		}
+
+		List<List<MultipartBody.Part>> logRequests = getLogRequests();
+		List<SaveLogRQ> uploadedLogs = logRequests.stream().flatMap(r -> extractJsonParts(r).stream()).collect(Collectors.toList());
+		assertThat(
+				uploadedLogs.stream().map(SaveLogRQ::getMessage).collect(Collectors.toList()),
+				containsInAnyOrder(writtenLogs.stream().map(SaveLogRQ::getMessage).toArray())
+		);
+		// Logs are regrouped by Stories and sent at once for each Story
+		assertThat(logRequests.size(), lessThanOrEqualTo(STORIES + 1));
+		assertThat(logRequests.size(), lessThan(logBatches * STORIES));
+
+		List<String> files = new ArrayList<>();
+		for (List<MultipartBody.Part> request : logRequests) {
+			for (MultipartBody.Part part : request) {
+				if (part.body().contentType() != null && "text".equals(part.body().contentType().type())) {
+					Buffer buffer = new Buffer();
+					part.body().writeTo(buffer);
+					files.add(buffer.readUtf8());
+				}
+			}
+		}
+		assertThat(files, hasSize(SCENARIOS));
+		assertThat(files, everyItem(equalTo(FILE_CONTENT)));
+
+		assertThat(
+				new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8),
+				equalTo(String.valueOf(Files.size(journal)))
+		);
+	}
+
+	@Test
+	public void verify_journal_upload_continues_from_checkpoint() throws IOException, InterruptedException {
+		Path journal = writeJournal();
+		mockClient();
+		String firstStory = parents.keySet().iterator().next();
+
+		// A checkpoint after Launch start and the first Story start records
+		Path checkpoint = tempDir.resolve("resume.checkpoint");
+		try (JournalReader reader = new JournalReader(journal)) {
+			reader.next();
+			reader.next();
+			Files.write(checkpoint, String.valueOf(reader.getPosition()).getBytes(StandardCharsets.UTF_8));
+		}
+
+		try (JournalUploader uploader = new JournalUploader(client, new ListenerParameters(), 2)) {
+			uploader.upload(journal, checkpoint);
+			assertThat(uploader.getErrors(), equalTo(0));
+		}
+
+		verify(client, never()).startLaunch(any());
+		assertThat(calls, not(hasItem("start:" + firstStory)));
+		assertThat(calls, hasItem("finish:" + firstStory));
+		List<String> firstScenarios = parents.entrySet()
+				.stream()
+				.filter(e -> firstStory.equals(e.getValue()))
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+		firstScenarios.forEach(s -> verify(client).startTestItem(eq(firstStory), argThat(rq -> s.equals(rq.getUuid()))));
+		assertThat(calls.get(calls.size() - 1), equalTo("launch_finish"));
+	}
+
+	@Test
+	public void verify_journal_upload_skips_records_of_failed_launch() throws IOException, InterruptedException {
+		Path journal = writeJournal();
+		mockClient();
+		when(client.startLaunch(any())).thenReturn(Maybe.error(new IllegalStateException("Launch start failed")));
+		Path checkpoint = tempDir.resolve("failed.checkpoint");
+
+		try (JournalUploader uploader = new JournalUploader(client, new ListenerParameters(), 2)) {
+			uploader.upload(journal, checkpoint);
+			assertThat(uploader.getErrors(), equalTo(1));
+		}
+
+		verify(client).startLaunch(any());
+		verify(client, never()).startTestItem(any());
+		verify(client, never()).startTestItem(anyString(), any());
+		verify(client, never()).finishTestItem(anyString(), any());
+		verify(client, never()).log(anyList());
+		verify(client, never()).finishLaunch(anyString(), any());
+		assertThat(
+				Long.parseLong(new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8)),
+				lessThan(Files.size(journal))
+		);
+	}
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.journal;
+
+import com.epam.reportportal.listeners.ItemStatus;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.OperationCompletionRS;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import io.reactivex.Maybe;
+import io.reactivex.observers.TestObserver;
+import jakarta.annotation.Nonnull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+public class SpillingReportPortalClientTest {
+
+	@TempDir
+	Path tempDir;
+
+	private final ReportPortalClient delegate = mock(ReportPortalClient.class);
+
+	private static List<JournalRecord> readAll(Path file) throws IOException {
+		List<JournalRecord> records = new ArrayList<>();
+		try (JournalReader reader = new JournalReader(file)) {
+			JournalRecord record;
+			while ((record = reader.next()) != null) {
+				records.add(record);
+			}
+		}
+		return records;
+	}
+
+	private static FinishTestItemRQ finish(ItemStatus status) {
+		FinishTestItemRQ rq = new FinishTestItemRQ();
+		rq.setStatus(status.name());
+		return rq;
+	}
+
+	private static SaveLogRQ log(String itemId) {
+		SaveLogRQ rq = new SaveLogRQ();
+		rq.setItemUuid(itemId);
+		rq.setMessage("message");
+		return rq;
+	}
+
+	@Test
+	public void verify_requests_are_passed_through_before_flush() throws IOException {
+		Path journal = tempDir.resolve("shutdown.rpj");
+		OperationCompletionRS response = new OperationCompletionRS();
+		when(delegate.finishTestItem(anyString(), any())).thenReturn(Maybe.just(response));
+
+		try (SpillingReportPortalClient client = new SpillingReportPortalClient(delegate, journal)) {
+			assertThat(client.finishTestItem("item", finish(ItemStatus.PASSED)).blockingGet(), sameInstance(response));
+			assertThat(client.getSentCount(), equalTo(0L));
+		}
+		verify(delegate).finishTestItem(same("item"), any());
+		assertThat(Files.exists(journal), equalTo(Boolean.FALSE));
+	}
+
+	@Test
+	public void verify_requests_are_sent_within_timeout() throws IOException {
+		Path journal = tempDir.resolve("shutdown.rpj");
+		OperationCompletionRS response = new OperationCompletionRS();
+		when(delegate.finishTestItem(anyString(), any())).thenReturn(Maybe.just(response));
+
+		try (SpillingReportPortalClient client = new SpillingReportPortalClient(delegate, journal)) {
+			client.flush(Duration.ofSeconds(30));
+			assertThat(client.finishTestItem("item", finish(ItemStatus.FAILED)).blockingGet(), sameInstance(response));
+			assertThat(client.getSentCount(), equalTo(1L));
+			assertThat(client.getSpilledCount(), equalTo(0L));
+		}
+		assertThat(Files.exists(journal), equalTo(Boolean.FALSE));
+	}
+
+	@Test
+	public void verify_failed_requests_are_sent_again_on_retry() throws IOException {
+		Path journal = tempDir.resolve("shutdown.rpj");
+		OperationCompletionRS response = new OperationCompletionRS();
+		when(delegate.finishTestItem(anyString(), any())).thenReturn(
+				Maybe.error(new IllegalStateException("Connection reset")),
+				Maybe.just(response)
+		);
+
+		try (SpillingReportPortalClient client = new SpillingReportPortalClient(delegate, journal)) {
+			assertThat(client.finishTestItem("item", finish(ItemStatus.PASSED)).retry(1).blockingGet(), sameInstance(response));
+		}
+		verify(delegate, times(2)).finishTestItem(same("item"), any());
+	}
+
+	@Test
+	public void verify_unsent_requests_are_written_to_journal_in_priority_order() throws IOException {
+		Path journal = tempDir.resolve("shutdown.rpj");
+		// Report Portal does not respond
+		when(delegate.log(any(SaveLogRQ.class))).thenReturn(Maybe.never());
+		AtomicLong clock = new AtomicLong();
+		ManualExecutor senders = new ManualExecutor();
+
+		try (SpillingReportPortalClient client = new SpillingReportPortalClient(delegate, journal, clock::get, () -> senders)) {
+			List<TestObserver<?>> results = new ArrayList<>();
+			results.add(client.log(log("in_flight")).test());
+			client.flush(Duration.ofMinutes(1));
+			// Senders are not run, so requests stay queued until the deadline
+			results.add(client.log(log("log_item")).test());
+			results.add(client.startTestItem("parent", new StartTestItemRQ()).test());
+			results.add(client.finishTestItem("passed_item", finish(ItemStatus.PASSED)).test());
+			results.add(client.finishTestItem("failed_item", finish(ItemStatus.FAILED)).test());
+			results.forEach(TestObserver::assertNotComplete);
+
+			clock.set(Duration.ofMinutes(2).toNanos());
+			senders.runAll();
+
+			results.forEach(r -> r.assertNoErrors().assertComplete());
+			assertThat(client.getSpilledCount(), equalTo(5L));
+			verify(delegate).log(any(SaveLogRQ.class));
+			verifyNoMoreInteractions(delegate);
+		}
+
+		List<String> records = readAll(journal).stream()
+				.map(r -> r.getType() + ":" + (r.getType() == JournalRecord.Type.ITEM_START ? r.getParentId() : r.getId()))
+				.collect(Collectors.toList());
+		assertThat(
+				records,
+				contains("ITEM_FINISH:failed_item", "ITEM_FINISH:passed_item", "ITEM_START:parent", "LOG:in_flight", "LOG:log_item")
+		);
+	}
+
+	@Test
+	public void verify_incomplete_requests_sent_before_flush_are_written_to_journal() throws IOException {
+		Path journal = tempDir.resolve("shutdown.rpj");
+		when(delegate.finishTestItem(same("slow_item"), any())).thenReturn(Maybe.never());
+		when(delegate.finishTestItem(same("fast_item"), any())).thenReturn(Maybe.just(new OperationCompletionRS()));
+		AtomicLong clock = new AtomicLong();
+		ManualExecutor senders = new ManualExecutor();
+
+		try (SpillingReportPortalClient client = new SpillingReportPortalClient(delegate, journal, clock::get, () -> senders)) {
+			TestObserver<OperationCompletionRS> slow = client.finishTestItem("slow_item", finish(ItemStatus.PASSED)).test();
+			client.finishTestItem("fast_item", finish(ItemStatus.PASSED)).blockingGet();
+			client.flush(Duration.ofMillis(500));
+			clock.set(Duration.ofSeconds(1).toNanos());
+			senders.runAll();
+
+			slow.assertNoErrors().assertValueCount(1);
+			assertThat(client.getSpilledCount(), equalTo(1L));
+		}
+
+		List<JournalRecord> records = readAll(journal);
+		assertThat(records, hasSize(1));
+		assertThat(records.get(0).getId(), equalTo("slow_item"));
+	}
+
+	@Test
+	public void verify_requests_after_deadline_are_written_to_journal() throws IOException {
+		Path journal = tempDir.resolve("shutdown.rpj");
+		ManualExecutor senders = new ManualExecutor();
+
+		try (SpillingReportPortalClient client = new SpillingReportPortalClient(delegate, journal, () -> 0L, () -> senders)) {
+			client.flush(Duration.ZERO);
+			senders.runAll();
+			assertThat(client.finishTestItem("item", finish(ItemStatus.PASSED)).blockingGet(), notNullValue());
+			assertThat(client.getSpilledCount(), equalTo(1L));
+		}
+		verifyNoInteractions(delegate);
+		assertThat(readAll(journal), hasSize(1));
+	}
+
+	/**
+	 * Executor which runs submitted tasks only on demand in the calling thread.
+	 */
+	private static class ManualExecutor extends AbstractExecutorService {
+		private final List<Runnable> tasks = new ArrayList<>();
+		private boolean shutdown;
+
+		private void runAll() {
+			List<Runnable> toRun = new ArrayList<>(tasks);
+			tasks.clear();
+			toRun.forEach(Runnable::run);
+		}
+
+		@Override
+		public void execute(@Nonnull Runnable command) {
+			tasks.add(command);
+		}
+
+		@Override
+		public void shutdown() {
+			shutdown = true;
+		}
+
+		@Nonnull
+		@Override
+		public List<Runnable> shutdownNow() {
+			shutdown = true;
+			List<Runnable> left = new ArrayList<>(tasks);
+			tasks.clear();
+			return left;
+		}
+
+		@Override
+		public boolean isShutdown() {
+			return shutdown;
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return shutdown && tasks.isEmpty();
+		}
+
+		@Override
+		public boolean awaitTermination(long timeout, @Nonnull TimeUnit unit) {
+			return isTerminated();
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.status;
+
+import com.epam.reportportal.jbehave.BaseTest;
+import com.epam.reportportal.jbehave.JBehaveParameters;
+import com.epam.reportportal.jbehave.ReportPortalStepFormat;
+import com.epam.reportportal.jbehave.integration.basic.EmptySteps;
+import com.epam.reportportal.jbehave.integration.basic.FailedSteps;
+import com.epam.reportportal.listeners.ItemStatus;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.util.test.CommonUtils;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class ChildStatusAttributesTest extends BaseTest {
+
+	private static final String FAILED_PASSED_SCENARIO_PATH = "stories/status/FailedPassedScenario.story";
+
+	private final String storyId = CommonUtils.namedId("story_");
+	private final String scenarioId = CommonUtils.namedId("scenario_");
+	private final List<String> stepIds = Stream.generate(() -> CommonUtils.namedId("step_")).limit(2).collect(Collectors.toList());
+
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+	private final JBehaveParameters parameters = new JBehaveParameters();
+	private final ReportPortalStepFormat format = new ReportPortalStepFormat(
+			ReportPortal.create(client, standardParameters(), testExecutor()),
+			parameters
+	);
+
+	@BeforeEach
+	public void setupMock() {
+		mockLaunch(client, null, storyId, scenarioId, stepIds);
+		mockBatchLogging(client);
+		parameters.setChildStatusAttributes(true);
+	}
+
+	private static Map<String, String> toMap(FinishTestItemRQ rq) {
+		return rq.getAttributes().stream().collect(Collectors.toMap(ItemAttributesRQ::getKey, ItemAttributesRQ::getValue));
+	}
+
+	@Test
+	public void verify_child_status_counters_reported_as_attributes() {
+		run(format, FAILED_PASSED_SCENARIO_PATH, new FailedSteps(), new EmptySteps());
+
+		ArgumentCaptor<FinishTestItemRQ> stepCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(client).finishTestItem(same(stepIds.get(0)), stepCaptor.capture());
+		assertThat(stepCaptor.getValue().getAttributes(), anyOf(nullValue(), empty()));
+
+		ArgumentCaptor<FinishTestItemRQ> scenarioCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(client).finishTestItem(same(scenarioId), scenarioCaptor.capture());
+		FinishTestItemRQ scenarioFinish = scenarioCaptor.getValue();
+		assertThat(scenarioFinish.getStatus(), equalTo(ItemStatus.FAILED.name()));
+		Map<String, String> scenarioAttributes = toMap(scenarioFinish);
+		assertThat(scenarioAttributes, aMapWithSize(2));
+		assertThat(scenarioAttributes, allOf(hasEntry("children.failed", "1"), hasEntry("children.skipped", "1")));
+
+		ArgumentCaptor<FinishTestItemRQ> storyCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(client).finishTestItem(same(storyId), storyCaptor.capture());
+		FinishTestItemRQ storyFinish = storyCaptor.getValue();
+		assertThat(storyFinish.getStatus(), equalTo(ItemStatus.FAILED.name()));
+		assertThat(toMap(storyFinish), allOf(aMapWithSize(1), hasEntry("children.failed", "1")));
+	}
+}
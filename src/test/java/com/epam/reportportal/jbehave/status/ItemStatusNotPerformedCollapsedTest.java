@@ -0,0 +1,112 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.status;
+
+import com.epam.reportportal.jbehave.BaseTest;
+import com.epam.reportportal.jbehave.JBehaveParameters;
+import com.epam.reportportal.jbehave.ReportPortalStepFormat;
+import com.epam.reportportal.jbehave.ReportPortalStoryReporter;
+import com.epam.reportportal.jbehave.integration.basic.EmptySteps;
+import com.epam.reportportal.jbehave.integration.basic.FailedSteps;
+import com.epam.reportportal.listeners.ItemStatus;
+import com.epam.reportportal.listeners.LogLevel;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.util.test.CommonUtils;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import okhttp3.MultipartBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+public class ItemStatusNotPerformedCollapsedTest extends BaseTest {
+
+	private static final String FAILED_NOT_PERFORMED_SCENARIO_PATH = "stories/status/FailedNotPerformedScenario.story";
+	private static final String NOT_PERFORMED_STEPS = "Given I have empty step\nThen I have another empty step\nWhen I have one more empty step";
+
+	private final String storyId = CommonUtils.namedId("story_");
+	private final String scenarioId = CommonUtils.namedId("scenario_");
+	private final List<String> stepIds = Stream.generate(() -> CommonUtils.namedId("step_")).limit(2).collect(Collectors.toList());
+
+	private final ReportPortalClient client = mock(ReportPortalClient.class);
+	private final JBehaveParameters parameters = new JBehaveParameters();
+	private final ReportPortalStepFormat format = new ReportPortalStepFormat(
+			ReportPortal.create(client, standardParameters(), testExecutor()),
+			parameters
+	);
+
+	@BeforeEach
+	public void setupMock() {
+		mockLaunch(client, null, storyId, scenarioId, stepIds);
+		mockBatchLogging(client);
+	}
+
+	@SuppressWarnings("unchecked")
+	private ArgumentCaptor<List<MultipartBody.Part>> captureLogs() {
+		ArgumentCaptor<List<MultipartBody.Part>> logCaptor = ArgumentCaptor.forClass(List.class);
+		verify(client, atLeast(1)).log(logCaptor.capture());
+		return logCaptor;
+	}
+
+	@Test
+	public void verify_not_performed_steps_collapsed_into_one_item() {
+		parameters.setNotPerformedReporting(ReportPortalStoryReporter.NotPerformedReporting.ITEM);
+		run(format, FAILED_NOT_PERFORMED_SCENARIO_PATH, new FailedSteps(), new EmptySteps());
+		format.finishLaunch();
+
+		ArgumentCaptor<StartTestItemRQ> startCaptor = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(client, times(2)).startTestItem(same(scenarioId), startCaptor.capture());
+		assertThat(startCaptor.getAllValues().get(1).getName(), equalTo("Not performed steps: 3"));
+
+		ArgumentCaptor<FinishTestItemRQ> finishCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(client).finishTestItem(same(stepIds.get(0)), finishCaptor.capture());
+		verify(client).finishTestItem(same(stepIds.get(1)), finishCaptor.capture());
+		verify(client).finishTestItem(same(scenarioId), finishCaptor.capture());
+		List<FinishTestItemRQ> finishItems = finishCaptor.getAllValues();
+		assertThat(finishItems.get(0).getStatus(), equalTo(ItemStatus.FAILED.name()));
+		assertThat(finishItems.get(1).getStatus(), equalTo(ItemStatus.SKIPPED.name()));
+		assertThat(finishItems.get(2).getStatus(), equalTo(ItemStatus.FAILED.name()));
+
+		verifyLogged(captureLogs(), stepIds.get(1), LogLevel.WARN, NOT_PERFORMED_STEPS);
+	}
+
+	@Test
+	public void verify_not_performed_steps_collapsed_into_one_log() {
+		parameters.setNotPerformedReporting(ReportPortalStoryReporter.NotPerformedReporting.LOG);
+		run(format, FAILED_NOT_PERFORMED_SCENARIO_PATH, new FailedSteps(), new EmptySteps());
+		format.finishLaunch();
+
+		verify(client).startTestItem(same(scenarioId), any());
+		ArgumentCaptor<FinishTestItemRQ> finishCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(client).finishTestItem(same(stepIds.get(0)), finishCaptor.capture());
+		verify(client).finishTestItem(same(scenarioId), finishCaptor.capture());
+		assertThat(finishCaptor.getAllValues().get(1).getStatus(), equalTo(ItemStatus.FAILED.name()));
+
+		verifyLogged(captureLogs(), scenarioId, LogLevel.WARN, NOT_PERFORMED_STEPS);
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class CodeReferenceTest {
+
+	private static final String STORY_PATH = "stories/Examples.story";
+	private static final String STEP_CODE_REF = STORY_PATH + "/[SCENARIO:Stock trade alert]/[EXAMPLE:[symbol:STK1$;threshold:10.0]]"
+			+ "/[STEP:Given a stock of symbol <symbol>]";
+
+	private static CodeReference stepCodeRef() {
+		return CodeReference.of(STORY_PATH)
+				.child("SCENARIO", "Stock trade alert")
+				.child("EXAMPLE", "[symbol:STK1$;threshold:10.0]")
+				.child("STEP", "Given a stock of symbol <symbol>");
+	}
+
+	@Test
+	public void verify_code_reference_string() {
+		CodeReference codeRef = stepCodeRef();
+
+		assertThat(codeRef.toString(), equalTo(STEP_CODE_REF));
+		assertThat(codeRef.length(), equalTo(STEP_CODE_REF.length()));
+	}
+
+	@Test
+	public void verify_code_reference_removes_line_breaks() {
+		CodeReference codeRef = CodeReference.of(STORY_PATH).child("STEP", "Given a table:\r\n|a|b|\n|1|2|");
+
+		assertThat(codeRef.toString(), equalTo(STORY_PATH + "/[STEP:Given a table:|a|b||1|2|]"));
+	}
+
+	@Test
+	public void verify_code_reference_content_equals() {
+		CodeReference codeRef = stepCodeRef();
+
+		assertThat(codeRef.contentEquals(STEP_CODE_REF), equalTo(true));
+		assertThat(codeRef.contentEquals(STEP_CODE_REF.replace("STK1$", "STK2$")), equalTo(false));
+		assertThat(codeRef.contentEquals(STEP_CODE_REF.replace("/[STEP:", "/[TEST:")), equalTo(false));
+		assertThat(codeRef.contentEquals(STEP_CODE_REF.replace("/[STEP:", "|[STEP:")), equalTo(false));
+		assertThat(codeRef.contentEquals(STEP_CODE_REF + "/"), equalTo(false));
+		assertThat(codeRef.contentEquals(null), equalTo(false));
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class StackTraceFormatterTest {
+
+	private static StackTraceElement frame(String className) {
+		return new StackTraceElement(className, "method", "File.java", 10);
+	}
+
+	private static Throwable failure() {
+		IllegalArgumentException cause = new IllegalArgumentException("root cause");
+		cause.setStackTrace(new StackTraceElement[] { frame("com.example.Service"), frame("org.jbehave.core.steps.StepCreator"),
+				frame("com.example.Steps") });
+		IllegalStateException thrown = new IllegalStateException("step failed", cause);
+		thrown.setStackTrace(new StackTraceElement[] { frame("org.jbehave.core.steps.StepCreator$ParametrisedStep"),
+				frame("jdk.internal.reflect.NativeMethodAccessorImpl"), frame("java.lang.reflect.Method"),
+				frame("org.jbehave.core.steps.StepCreator"), frame("com.example.Steps"), frame("org.jbehave.core.embedder.PerformableTree") });
+		return thrown;
+	}
+
+	@Test
+	public void verify_filtered_frames_are_collapsed_and_top_frames_are_kept() {
+		StackTraceFormatter formatter = new StackTraceFormatter(
+				Arrays.asList("org.jbehave.core", "jdk.internal.reflect", "java.lang.reflect"),
+				0,
+				0
+		);
+		String result = formatter.format(failure());
+
+		assertThat(
+				result, equalTo("java.lang.IllegalStateException: step failed\n"
+						+ "\tat org.jbehave.core.steps.StepCreator$ParametrisedStep.method(File.java:10)\n"
+						+ "\t... 3 frames elided\n"
+						+ "\tat com.example.Steps.method(File.java:10)\n"
+						+ "\t... 1 frames elided\n"
+						+ "Caused by: java.lang.IllegalArgumentException: root cause\n"
+						+ "\tat com.example.Service.method(File.java:10)\n"
+						+ "\t... 1 frames elided\n"
+						+ "\tat com.example.Steps.method(File.java:10)")
+		);
+	}
+
+	@Test
+	public void verify_frames_over_limit_are_collapsed() {
+		StackTraceFormatter formatter = new StackTraceFormatter(Collections.emptyList(), 2, 0);
+		String result = formatter.format(failure());
+
+		assertThat(result, containsString("\tat jdk.internal.reflect.NativeMethodAccessorImpl.method(File.java:10)\n\t... 4 frames elided\n"));
+		assertThat(result, endsWith("\tat org.jbehave.core.steps.StepCreator.method(File.java:10)\n\t... 1 frames elided"));
+	}
+
+	@Test
+	public void verify_size_limit_keeps_cause_chain() {
+		Throwable thrown = failure();
+		StackTraceFormatter formatter = new StackTraceFormatter(Collections.emptyList(), 0, 150);
+		String result = formatter.format(thrown);
+
+		assertThat(result, startsWith("java.lang.IllegalStateException: step failed\n"));
+		assertThat(result, containsString("Caused by: java.lang.IllegalArgumentException: root cause"));
+		assertThat(result, containsString("frames elided"));
+		// An elided frames line is allowed to exceed the limit
+		assertThat(result.getBytes(StandardCharsets.UTF_8).length, lessThan(200));
+	}
+
+	@Test
+	public void verify_formatter_is_disabled_by_default() {
+		assertThat(new StackTraceFormatter(Collections.emptyList(), 0, 0).isEnabled(), equalTo(Boolean.FALSE));
+	}
+}
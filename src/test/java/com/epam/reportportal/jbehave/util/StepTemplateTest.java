@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.jbehave.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class StepTemplateTest {
+
+	private static final Map<String, String> EXAMPLE = new LinkedHashMap<>() {{
+		put("symbol", "STK1$");
+		put("threshold", "10.0");
+		put("path", "C:\\temp");
+	}};
+
+	@Test
+	public void verify_step_template_parameter_names() {
+		StepTemplate template = StepTemplate.parse("When I have first parameter <symbol> and second parameter <symbol> and <unknown>");
+
+		assertThat(template.getParameterNames(), contains("symbol", "symbol", "unknown"));
+	}
+
+	@Test
+	public void verify_step_template_format() {
+		StepTemplate template = StepTemplate.parse("Given a stock of symbol <symbol> and a threshold <threshold> in <path>");
+
+		assertThat(template.format(EXAMPLE), equalTo("Given a stock of symbol STK1$ and a threshold 10.0 in C:\\temp"));
+	}
+
+	@Test
+	public void verify_step_template_keeps_unknown_placeholders() {
+		StepTemplate template = StepTemplate.parse("Then <symbol> is <status> and <threshold");
+
+		assertThat(template.format(EXAMPLE), equalTo("Then STK1$ is <status> and <threshold"));
+	}
+
+	@Test
+	public void verify_step_template_without_placeholders() {
+		String step = "Given a simple step";
+		StepTemplate template = StepTemplate.parse(step);
+
+		assertThat(template.getParameterNames(), empty());
+		assertThat(template.format(Collections.emptyMap()), sameInstance(step));
+	}
+}